@@ -0,0 +1,242 @@
+package co.fullstacklabs.cuboid.challenge.benchmark;
+
+import co.fullstacklabs.cuboid.challenge.CuboidChallengeApplication;
+import co.fullstacklabs.cuboid.challenge.index.CuboidIndexes;
+import co.fullstacklabs.cuboid.challenge.occupancy.BagOccupancyView;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application, with or without a web server, against its own in-memory H2
+ * database, or a file-backed one under the prod profile, and seeds it with a given number
+ * of bags and cuboids on top of the Flyway data.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+final class BenchmarkDatabase {
+
+    /** Seeded rows get IDs from here on so they never collide with the ID sequences. */
+    static final long FIRST_SEEDED_ID = 1_000_000L;
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int MAX_SIDE = 10;
+
+    private BenchmarkDatabase() {
+    }
+
+    /** The application configuration, minus the test configurations on the benchmark classpath. */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @AutoConfigurationPackage(basePackageClasses = CuboidChallengeApplication.class)
+    @ComponentScan(basePackageClasses = CuboidChallengeApplication.class,
+            excludeFilters = {
+                @ComponentScan.Filter(type = FilterType.ANNOTATION, classes = TestConfiguration.class),
+                @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = CuboidChallengeApplication.class)
+            })
+    static class BenchmarkApplication {
+    }
+
+    /**
+     * Starts an application context seeded with the given counts. Cuboids are spread
+     * round-robin over the bags and every bag is large enough to keep accepting cuboids
+     * for the whole run.
+     *
+     * @param bagCount - Number of bags to seed
+     * @param cuboidCount - Number of cuboids to seed
+     * @param extraProperties - Additional application properties, in key=value form
+     * @return ConfigurableApplicationContext
+     */
+    static ConfigurableApplicationContext start(int bagCount, int cuboidCount, String... extraProperties) {
+        return run(WebApplicationType.NONE, 0L, bagCount, cuboidCount, inMemory(extraProperties));
+    }
+
+    /**
+     * Starts a seeded application serving HTTP on a random port. Every JDBC connection
+     * handed out is held for the given latency first, simulating a slow database.
+     *
+     * @param connectionLatencyMillis - Time each connection is held before it is used
+     * @param bagCount - Number of bags to seed
+     * @param cuboidCount - Number of cuboids to seed
+     * @param extraProperties - Additional application properties, in key=value form
+     * @return ConfigurableApplicationContext
+     */
+    static ConfigurableApplicationContext startServer(long connectionLatencyMillis, int bagCount, int cuboidCount,
+                                                      String... extraProperties) {
+        return run(WebApplicationType.SERVLET, connectionLatencyMillis, bagCount, cuboidCount, inMemory(extraProperties));
+    }
+
+    /**
+     * Starts the application without a web server and without seeding, on the database the
+     * properties select. They take precedence over the application's own configuration,
+     * profiles included.
+     *
+     * @param extraProperties - Additional application properties, in key=value form
+     * @return ConfigurableApplicationContext
+     */
+    static ConfigurableApplicationContext open(String... extraProperties) {
+        return open(WebApplicationType.NONE, extraProperties);
+    }
+
+    /**
+     * Starts a seeded application with the prod profile on a file-backed store in the given
+     * directory.
+     *
+     * @param directory - Directory holding the store files
+     * @param bagCount - Number of bags to seed
+     * @param cuboidCount - Number of cuboids to seed
+     * @param extraProperties - Additional application properties, in key=value form
+     * @return ConfigurableApplicationContext
+     */
+    static ConfigurableApplicationContext startStore(Path directory, int bagCount, int cuboidCount,
+                                                     String... extraProperties) {
+        return run(WebApplicationType.NONE, 0L, bagCount, cuboidCount, storeProperties(directory, extraProperties));
+    }
+
+    /**
+     * Properties selecting the prod profile on a file-backed store in the given directory.
+     *
+     * @param directory - Directory holding the store files
+     * @param extraProperties - Additional application properties, in key=value form
+     * @return String[] in key=value form
+     */
+    static String[] storeProperties(Path directory, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.profiles.active=prod",
+                "cuboid.store.path=" + directory.resolve("cuboids").toAbsolutePath()));
+        properties.addAll(List.of(extraProperties));
+        return properties.toArray(new String[0]);
+    }
+
+    /**
+     * Deletes a store directory and everything in it.
+     *
+     * @param directory - Directory holding the store files
+     */
+    static void deleteStore(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static String[] inMemory(String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_ON_EXIT=FALSE"));
+        properties.addAll(List.of(extraProperties));
+        return properties.toArray(new String[0]);
+    }
+
+    private static ConfigurableApplicationContext open(WebApplicationType webApplicationType, String... extraProperties) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.main.banner-mode=off",
+                "server.port=0",
+                "logging.level.root=WARN"));
+        properties.addAll(List.of(extraProperties));
+
+        String[] args = properties.stream().map(property -> "--" + property).toArray(String[]::new);
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(webApplicationType)
+                .run(args);
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType webApplicationType, long connectionLatencyMillis,
+                                                      int bagCount, int cuboidCount, String... extraProperties) {
+        ConfigurableApplicationContext context = open(webApplicationType, extraProperties);
+        seed(context.getBean(JdbcTemplate.class), bagCount, cuboidCount);
+        context.getBean(CuboidIndexes.class).rebuild();
+        context.getBean(BagOccupancyView.class).rebuild();
+        if (connectionLatencyMillis > 0) {
+            context.getBean(SlowConnections.class).latencyMillis = connectionLatencyMillis;
+        }
+        return context;
+    }
+
+    /** Wraps the data source so connections can be made slow once the database is seeded. */
+    @Component
+    static class SlowConnections implements BeanPostProcessor {
+
+        private volatile long latencyMillis;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource) || bean instanceof DelegatingDataSource) {
+                return bean;
+            }
+            return new DelegatingDataSource((DataSource) bean) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    Connection connection = super.getConnection();
+                    pause();
+                    return connection;
+                }
+            };
+        }
+
+        private void pause() {
+            if (latencyMillis > 0) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+    }
+
+    private static void seed(JdbcTemplate jdbc, int bagCount, int cuboidCount) {
+        Random random = new Random(42);
+        double[] payloads = new double[bagCount];
+        List<Object[]> cuboids = new ArrayList<>(BATCH_SIZE);
+
+        for (int i = 0; i < cuboidCount; i++) {
+            float width = 1 + random.nextInt(MAX_SIDE);
+            float height = 1 + random.nextInt(MAX_SIDE);
+            float depth = 1 + random.nextInt(MAX_SIDE);
+            int bag = i % bagCount;
+            payloads[bag] += (double) width * height * depth;
+            cuboids.add(new Object[] {FIRST_SEEDED_ID + i, depth, height, width, FIRST_SEEDED_ID + bag});
+        }
+
+        List<Object[]> bags = new ArrayList<>(bagCount);
+        for (int i = 0; i < bagCount; i++) {
+            bags.add(new Object[] {FIRST_SEEDED_ID + i, Double.MAX_VALUE / 2, "Benchmark " + i, payloads[i]});
+        }
+
+        insert(jdbc, "insert into BAGS (ID, VOLUME, TITLE, PAYLOAD_VOLUME) values (?, ?, ?, ?)", bags);
+        insert(jdbc, "insert into CUBOIDS (ID, DEPTH, HEIGHT, WIDTH, BAG_ID) values (?, ?, ?, ?, ?)", cuboids);
+    }
+
+    private static void insert(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+    }
+
+}
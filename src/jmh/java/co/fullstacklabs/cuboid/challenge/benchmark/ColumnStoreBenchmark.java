@@ -0,0 +1,79 @@
+package co.fullstacklabs.cuboid.challenge.benchmark;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagVolumeDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.service.CuboidService;
+import co.fullstacklabs.cuboid.challenge.service.CuboidStatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates over every cuboid: scanning the column store against streaming the rows as
+ * DTOs, which is the only way without it. Run with -prof gc to compare allocations.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ColumnStoreBenchmark {
+
+    @Param("100")
+    private int bags;
+
+    @Param("100000")
+    private int cuboids;
+
+    private ConfigurableApplicationContext context;
+    private CuboidStatsService statsService;
+    private CuboidService cuboidService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkDatabase.start(bags, cuboids, "cuboid.column-store.enabled=true");
+        statsService = context.getBean(CuboidStatsService.class);
+        cuboidService = context.getBean(CuboidService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BagVolumeDTO> volumeByBagColumns() {
+        return statsService.volumeByBag();
+    }
+
+    @Benchmark
+    public Map<Long, Double> volumeByBagRows() {
+        Map<Long, Double> volumes = new HashMap<>();
+        cuboidService.streamAll(cuboid -> volumes.merge(cuboid.getBagId(), cuboid.getVolume(), Double::sum));
+        return volumes;
+    }
+
+    @Benchmark
+    public List<CuboidDTO> largestColumns() {
+        return statsService.largest(10, null);
+    }
+
+}
@@ -0,0 +1,110 @@
+package co.fullstacklabs.cuboid.challenge.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load test comparing the handler execution modes over HTTP while the database is slow.
+ * Most client threads call an endpoint that needs a JDBC connection; a few call the health
+ * check, with its database indicator disabled, which does not, to show whether slow requests starve the Tomcat workers.
+ * Sample time mode reports throughput and latency percentiles, p0.99 included.
+ * Example: -p mode=ASYNC -p dbLatencyMillis=50 -p tomcatThreads=20
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+public class ExecutionModeBenchmark {
+
+    @Param({"THREAD_PER_REQUEST", "ASYNC", "VIRTUAL"})
+    private String mode;
+
+    @Param("20")
+    private long dbLatencyMillis;
+
+    @Param("20")
+    private int tomcatThreads;
+
+    @Param("10")
+    private int jdbcConnections;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest summaries;
+    private HttpRequest health;
+    private final Map<Integer, LongAdder> failures = new ConcurrentHashMap<>();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkDatabase.startServer(dbLatencyMillis, 100, 1_000,
+                "cuboid.execution.mode=" + mode,
+                "server.tomcat.threads.max=" + tomcatThreads,
+                "spring.datasource.hikari.maximum-pool-size=" + jdbcConnections,
+                "spring.datasource.hikari.connection-timeout=60000",
+                "management.health.db.enabled=false");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        summaries = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bags/summary")).build();
+        health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (!failures.isEmpty()) {
+            System.out.println("Failed requests by status: " + failures);
+        }
+        context.close();
+    }
+
+    @Benchmark
+    @Group("slowDatabase")
+    @GroupThreads(56)
+    public int databaseBound() throws IOException, InterruptedException {
+        return send(summaries);
+    }
+
+    @Benchmark
+    @Group("slowDatabase")
+    @GroupThreads(8)
+    public int databaseFree() throws IOException, InterruptedException {
+        return send(health);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            failures.computeIfAbsent(status, ignored -> new LongAdder()).increment();
+        }
+        return status;
+    }
+
+}
@@ -0,0 +1,81 @@
+package co.fullstacklabs.cuboid.challenge.benchmark;
+
+import co.fullstacklabs.cuboid.challenge.bulk.BulkImporter;
+import co.fullstacklabs.cuboid.challenge.bulk.ImportFormat;
+import co.fullstacklabs.cuboid.challenge.dto.ImportReportDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk import of a generated CSV file: bags first, then cuboids spread over them.
+ * Every invocation imports the whole file into the same database.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class ImportBenchmark {
+
+    @Param("100")
+    private int bags;
+
+    @Param("100000")
+    private int cuboids;
+
+    private ConfigurableApplicationContext context;
+    private BulkImporter importer;
+    private byte[] csv;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkDatabase.start(0, 0);
+        importer = context.getBean(BulkImporter.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void generate() {
+        Random random = new Random(run);
+        String prefix = "run" + run++ + "-";
+        StringBuilder content = new StringBuilder("type,key,title,volume,width,height,depth,bagKey\n");
+        for (int i = 0; i < bags; i++) {
+            content.append("bag,").append(prefix).append(i).append(",Bag ").append(i).append(",1e12,,,,\n");
+        }
+        for (int i = 0; i < cuboids; i++) {
+            content.append("cuboid,,,,").append(1 + random.nextInt(10)).append(',').append(1 + random.nextInt(10))
+                    .append(',').append(1 + random.nextInt(10)).append(',').append(prefix).append(i % bags).append('\n');
+        }
+        csv = content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public ImportReportDTO importCsv() {
+        return importer.importFrom(new ByteArrayInputStream(csv), ImportFormat.CSV);
+    }
+
+}
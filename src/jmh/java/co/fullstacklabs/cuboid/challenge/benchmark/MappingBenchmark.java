@@ -0,0 +1,107 @@
+package co.fullstacklabs.cuboid.challenge.benchmark;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.mapper.BagMapper;
+import co.fullstacklabs.cuboid.challenge.mapper.CuboidMapper;
+import co.fullstacklabs.cuboid.challenge.mapper.MappingMode;
+import co.fullstacklabs.cuboid.challenge.model.Bag;
+import co.fullstacklabs.cuboid.challenge.model.Cuboid;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping with the mappers in REFLECTIVE mode, where ModelMapper matches
+ * properties by reflection, and in DIRECT mode, where they copy the fields themselves.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MappingBenchmark {
+
+    @Param({"1", "100"})
+    private int cuboidsPerBag;
+
+    private CuboidMapper reflectiveCuboidMapper;
+    private BagMapper reflectiveBagMapper;
+    private CuboidMapper cuboidMapper;
+    private BagMapper bagMapper;
+    private Cuboid cuboid;
+    private CuboidDTO cuboidDTO;
+    private Bag bag;
+
+    @Setup
+    public void setUp() {
+        ModelMapper modelMapper = new ModelMapper();
+        reflectiveCuboidMapper = new CuboidMapper(MappingMode.REFLECTIVE, modelMapper);
+        reflectiveBagMapper = new BagMapper(reflectiveCuboidMapper, MappingMode.REFLECTIVE, modelMapper);
+        cuboidMapper = new CuboidMapper();
+        bagMapper = new BagMapper(cuboidMapper);
+
+        bag = new Bag();
+        bag.setId(1L);
+        bag.setTitle("Benchmark");
+        bag.setVolume(Double.MAX_VALUE / 2);
+        for (int i = 0; i < cuboidsPerBag; i++) {
+            Cuboid item = new Cuboid();
+            item.setId((long) i);
+            item.setWidth(2f);
+            item.setHeight(3f);
+            item.setDepth(5f);
+            item.setBag(bag);
+            bag.addCuboid(item);
+        }
+
+        cuboid = bag.getCuboids().get(0);
+        cuboidDTO = cuboidMapper.toDTO(cuboid);
+    }
+
+    @Benchmark
+    public CuboidDTO cuboidToDTOReflective() {
+        return reflectiveCuboidMapper.toDTO(cuboid);
+    }
+
+    @Benchmark
+    public CuboidDTO cuboidToDTODirect() {
+        return cuboidMapper.toDTO(cuboid);
+    }
+
+    @Benchmark
+    public Cuboid cuboidToEntityReflective() {
+        return reflectiveCuboidMapper.toEntity(cuboidDTO);
+    }
+
+    @Benchmark
+    public Cuboid cuboidToEntityDirect() {
+        return cuboidMapper.toEntity(cuboidDTO);
+    }
+
+    @Benchmark
+    public BagDTO bagToDTOReflective() {
+        return reflectiveBagMapper.toDTO(bag);
+    }
+
+    @Benchmark
+    public BagDTO bagToDTODirect() {
+        return bagMapper.toDTO(bag);
+    }
+
+}
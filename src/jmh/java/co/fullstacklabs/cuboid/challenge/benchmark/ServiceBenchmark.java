@@ -0,0 +1,149 @@
+package co.fullstacklabs.cuboid.challenge.benchmark;
+
+import co.fullstacklabs.cuboid.challenge.CacheConfig;
+import co.fullstacklabs.cuboid.challenge.bulk.BagExporter;
+import co.fullstacklabs.cuboid.challenge.bulk.ExportFormat;
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.service.BagService;
+import co.fullstacklabs.cuboid.challenge.service.CuboidService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service hot paths measured end to end against a seeded in-memory H2 database.
+ * Sizes are set with -p bags=... -p cuboids=...
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ServiceBenchmark {
+
+    @Param("100")
+    private int bags;
+
+    @Param("10000")
+    private int cuboids;
+
+    private ConfigurableApplicationContext context;
+    private CuboidService cuboidService;
+    private BagService bagService;
+    private BagExporter bagExporter;
+    private Cache bagCache;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkDatabase.start(bags, cuboids);
+        cuboidService = context.getBean(CuboidService.class);
+        bagService = context.getBean(BagService.class);
+        bagExporter = context.getBean(BagExporter.class);
+        bagCache = Objects.requireNonNull(context.getBean(CacheManager.class).getCache(CacheConfig.BAGS_CACHE));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /** A cuboid created by the per-invocation setup, for delete to remove. */
+    @State(Scope.Thread)
+    public static class DeleteTarget {
+
+        private long cuboidId;
+
+        @Setup(Level.Invocation)
+        public void create(ServiceBenchmark benchmark) {
+            cuboidId = benchmark.cuboidService.create(benchmark.newCuboid()).getId();
+        }
+
+    }
+
+    @Benchmark
+    public CuboidDTO cuboidCreate() {
+        return cuboidService.create(newCuboid());
+    }
+
+    @Benchmark
+    public CuboidDTO cuboidUpdate() {
+        CuboidDTO cuboid = newCuboid();
+        return cuboidService.update(randomId(cuboids), cuboid);
+    }
+
+    @Benchmark
+    public void cuboidDelete(DeleteTarget target) {
+        cuboidService.delete(target.cuboidId);
+    }
+
+    @Benchmark
+    public List<CuboidDTO> cuboidGetAll() {
+        return cuboidService.getAll();
+    }
+
+    @Benchmark
+    public List<CuboidDTO> cuboidFindFitting() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return cuboidService.findFitting(1f + random.nextInt(10), 1f + random.nextInt(10), 1f + random.nextInt(10), 100);
+    }
+
+    @Benchmark
+    public List<BagDTO> bagGetAll() {
+        return bagService.getAll();
+    }
+
+    @Benchmark
+    public void bagExport() throws IOException {
+        bagExporter.export(OutputStream.nullOutputStream(), ExportFormat.NDJSON, false);
+    }
+
+    @Benchmark
+    public BagDTO bagFindByIdCached() {
+        return bagService.findById(randomId(bags));
+    }
+
+    @Benchmark
+    public BagDTO bagFindByIdUncached() {
+        long id = randomId(bags);
+        bagCache.evict(id);
+        return bagService.findById(id);
+    }
+
+    private CuboidDTO newCuboid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CuboidDTO cuboid = new CuboidDTO();
+        cuboid.setWidth(1f + random.nextInt(10));
+        cuboid.setHeight(1f + random.nextInt(10));
+        cuboid.setDepth(1f + random.nextInt(10));
+        cuboid.setBagId(randomId(bags));
+        return cuboid;
+    }
+
+    private static long randomId(int count) {
+        return BenchmarkDatabase.FIRST_SEEDED_ID + ThreadLocalRandom.current().nextInt(count);
+    }
+
+}
@@ -0,0 +1,83 @@
+package co.fullstacklabs.cuboid.challenge.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restart time of the prod profile on a file-backed store that already holds the seeded
+ * bags and cuboids: opening the store, Flyway validation and the index load, from the
+ * database or from the snapshot saved by the previous shutdown.
+ * Store settings are set with -p cacheSizeKb=... -p pageSize=... -p snapshot=...
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class StoreStartupBenchmark {
+
+    @Param("100")
+    private int bags;
+
+    @Param("100000")
+    private int cuboids;
+
+    @Param({"16384", "65536"})
+    private int cacheSizeKb;
+
+    @Param("4096")
+    private int pageSize;
+
+    @Param({"false", "true"})
+    private boolean snapshot;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void seed() throws IOException {
+        directory = Files.createTempDirectory("cuboid-store");
+        BenchmarkDatabase.startStore(directory, bags, cuboids, storeSettings()).close();
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() {
+        context.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        BenchmarkDatabase.deleteStore(directory);
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext restart() {
+        context = BenchmarkDatabase.open(BenchmarkDatabase.storeProperties(directory, storeSettings()));
+        return context;
+    }
+
+    private String[] storeSettings() {
+        return new String[] {"cuboid.store.cache-size-kb=" + cacheSizeKb, "cuboid.store.page-size=" + pageSize,
+            "cuboid.snapshot.enabled=" + snapshot};
+    }
+
+}
@@ -0,0 +1,104 @@
+package co.fullstacklabs.cuboid.challenge.benchmark;
+
+import co.fullstacklabs.cuboid.challenge.CacheConfig;
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.service.BagService;
+import co.fullstacklabs.cuboid.challenge.service.CuboidService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write and uncached read throughput of the prod profile on a file-backed store, across
+ * store settings. Sizes are set with -p bags=... -p cuboids=..., the store with
+ * -p cacheSizeKb=... -p writeDelayMillis=...
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class StoreThroughputBenchmark {
+
+    @Param("100")
+    private int bags;
+
+    @Param("100000")
+    private int cuboids;
+
+    @Param({"16384", "65536"})
+    private int cacheSizeKb;
+
+    @Param({"0", "500"})
+    private int writeDelayMillis;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private CuboidService cuboidService;
+    private BagService bagService;
+    private Cache bagCache;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        directory = Files.createTempDirectory("cuboid-store");
+        context = BenchmarkDatabase.startStore(directory, bags, cuboids,
+                "cuboid.store.cache-size-kb=" + cacheSizeKb, "cuboid.store.write-delay-millis=" + writeDelayMillis);
+        cuboidService = context.getBean(CuboidService.class);
+        bagService = context.getBean(BagService.class);
+        bagCache = Objects.requireNonNull(context.getBean(CacheManager.class).getCache(CacheConfig.BAGS_CACHE));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        BenchmarkDatabase.deleteStore(directory);
+    }
+
+    @Benchmark
+    public CuboidDTO cuboidCreate() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        CuboidDTO cuboid = new CuboidDTO();
+        cuboid.setWidth(1f + random.nextInt(10));
+        cuboid.setHeight(1f + random.nextInt(10));
+        cuboid.setDepth(1f + random.nextInt(10));
+        cuboid.setBagId(randomBagId());
+        return cuboidService.create(cuboid);
+    }
+
+    @Benchmark
+    public BagDTO bagFindByIdUncached() {
+        long id = randomBagId();
+        bagCache.evict(id);
+        return bagService.findById(id);
+    }
+
+    private long randomBagId() {
+        return BenchmarkDatabase.FIRST_SEEDED_ID + ThreadLocalRandom.current().nextInt(bags);
+    }
+
+}
@@ -0,0 +1,116 @@
+package co.fullstacklabs.cuboid.challenge.benchmark;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagOccupancyDTO;
+import co.fullstacklabs.cuboid.challenge.dto.BagSummaryDTO;
+import co.fullstacklabs.cuboid.challenge.dto.UtilizationReportDTO;
+import co.fullstacklabs.cuboid.challenge.service.BagService;
+import co.fullstacklabs.cuboid.challenge.service.UtilizationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The utilization report computed over ID ranges on the fork-join pool, against the single
+ * grouped query over the cuboids that used to back the bag summaries, the summaries read from
+ * the occupancy table, and the occupancies held in memory. H2 hands back the previous result of a query run
+ * again with the same parameters on unchanged tables, so every invocation first writes to a
+ * bag. Pool size and bags per range are set with -p parallelism=... -p chunkSize=...
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class UtilizationBenchmark {
+
+    /** The grouped query over the cuboids that backed the bag summaries before the occupancy table. */
+    private static final String SUMMARIES_FROM_CUBOIDS =
+            "select new co.fullstacklabs.cuboid.challenge.dto.BagSummaryDTO(b.id, b.title, b.volume,"
+                    + " coalesce(sum(c.volume), 0.0), count(c))"
+                    + " from Bag b left join b.cuboids c"
+                    + " group by b.id, b.title, b.volume"
+                    + " order by b.id";
+
+    @Param("10000")
+    private int bags;
+
+    @Param("100000")
+    private int cuboids;
+
+    @Param({"1", "4"})
+    private int parallelism;
+
+    @Param("1000")
+    private int chunkSize;
+
+    private ConfigurableApplicationContext context;
+    private UtilizationService utilizationService;
+    private BagService bagService;
+    private EntityManagerFactory entityManagerFactory;
+    private JdbcTemplate jdbc;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkDatabase.start(bags, cuboids,
+                "cuboid.utilization.parallelism=" + parallelism, "cuboid.utilization.chunk-size=" + chunkSize);
+        utilizationService = context.getBean(UtilizationService.class);
+        bagService = context.getBean(BagService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void touch() {
+        jdbc.update("update BAGS set VERSION = VERSION + 1 where ID = ?", BenchmarkDatabase.FIRST_SEEDED_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public UtilizationReportDTO utilizationReport() {
+        return utilizationService.report(true);
+    }
+
+    @Benchmark
+    public List<BagSummaryDTO> bagSummariesFromCuboids() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery(SUMMARIES_FROM_CUBOIDS, BagSummaryDTO.class).getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public List<BagSummaryDTO> bagSummaries() {
+        return bagService.getSummaries();
+    }
+
+    @Benchmark
+    public List<BagOccupancyDTO> bagOccupancies() {
+        return bagService.getOccupancies();
+    }
+
+}
@@ -0,0 +1,108 @@
+package co.fullstacklabs.cuboid.challenge.benchmark;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.model.Cuboid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing cuboid volumes from primitive entity fields, from boxed DTO fields,
+ * through a stream, and from flat primitive arrays.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class VolumeBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private List<Cuboid> cuboids;
+    private List<CuboidDTO> cuboidDTOs;
+    private float[] widths;
+    private float[] heights;
+    private float[] depths;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        cuboids = new ArrayList<>(size);
+        cuboidDTOs = new ArrayList<>(size);
+        widths = new float[size];
+        heights = new float[size];
+        depths = new float[size];
+
+        for (int i = 0; i < size; i++) {
+            widths[i] = 1 + random.nextInt(10);
+            heights[i] = 1 + random.nextInt(10);
+            depths[i] = 1 + random.nextInt(10);
+
+            Cuboid cuboid = new Cuboid();
+            cuboid.setWidth(widths[i]);
+            cuboid.setHeight(heights[i]);
+            cuboid.setDepth(depths[i]);
+            cuboids.add(cuboid);
+
+            CuboidDTO cuboidDTO = new CuboidDTO();
+            cuboidDTO.setWidth(widths[i]);
+            cuboidDTO.setHeight(heights[i]);
+            cuboidDTO.setDepth(depths[i]);
+            cuboidDTOs.add(cuboidDTO);
+        }
+    }
+
+    @Benchmark
+    public double entityLoop() {
+        double total = 0;
+        for (Cuboid cuboid : cuboids) {
+            total += (double) cuboid.getWidth() * cuboid.getHeight() * cuboid.getDepth();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double boxedDTOLoop() {
+        double total = 0;
+        for (CuboidDTO cuboidDTO : cuboidDTOs) {
+            total += (double) cuboidDTO.getWidth() * cuboidDTO.getHeight() * cuboidDTO.getDepth();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public double entityStream() {
+        return cuboids.stream()
+                .mapToDouble(cuboid -> (double) cuboid.getWidth() * cuboid.getHeight() * cuboid.getDepth())
+                .sum();
+    }
+
+    @Benchmark
+    public double primitiveArrays() {
+        double total = 0;
+        for (int i = 0; i < widths.length; i++) {
+            total += (double) widths[i] * heights[i] * depths[i];
+        }
+        return total;
+    }
+
+}
@@ -1,15 +1,21 @@
 package co.fullstacklabs.cuboid.challenge;
 
+import co.fullstacklabs.cuboid.challenge.metrics.TimedModelMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class ApplicationConfig {
 
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
     @Bean
     public ModelMapper modelMapper() {
-        return new ModelMapper();
+        return meterRegistry != null ? new TimedModelMapper(meterRegistry) : new ModelMapper();
     }
 
 }
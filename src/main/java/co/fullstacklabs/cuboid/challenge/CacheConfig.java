@@ -0,0 +1,16 @@
+package co.fullstacklabs.cuboid.challenge;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring Cache. The caches themselves are Caffeine caches configured
+ * through the spring.cache properties.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String BAGS_CACHE = "bags";
+
+}
@@ -0,0 +1,87 @@
+package co.fullstacklabs.cuboid.challenge;
+
+import co.fullstacklabs.cuboid.challenge.controller.CuboidController;
+import co.fullstacklabs.cuboid.challenge.execution.BoundedExecutor;
+import co.fullstacklabs.cuboid.challenge.execution.ExecutionMode;
+import co.fullstacklabs.cuboid.challenge.execution.OffloadingHandlerAdapter;
+import co.fullstacklabs.cuboid.challenge.execution.VirtualThreads;
+import co.fullstacklabs.cuboid.challenge.metrics.StatementCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import javax.annotation.PreDestroy;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Selects where controller handlers run. Outside the default thread-per-request mode,
+ * handlers run on an executor allowing as many concurrent handlers as there are JDBC
+ * connections, so Tomcat workers are not held while requests wait on the database.
+ * When the bounded pool queue is full, requests are answered with 503. Handlers keep
+ * counting their SQL statements into the request's counter on the executor thread.
+ */
+@Configuration
+public class ExecutionConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutionConfig.class);
+
+    @Value("${cuboid.execution.mode:THREAD_PER_REQUEST}")
+    private ExecutionMode mode = ExecutionMode.THREAD_PER_REQUEST;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int jdbcPoolSize = 10;
+
+    @Value("${cuboid.execution.queue-capacity:500}")
+    private int queueCapacity = 500;
+
+    private ExecutorService handlerExecutor;
+
+    @Bean
+    public WebMvcRegistrations handlerExecutionRegistrations(StatementCounter statementCounter) {
+        if (mode == ExecutionMode.THREAD_PER_REQUEST) {
+            return new WebMvcRegistrations() { };
+        }
+
+        Executor handlers = handlerExecutor();
+        Executor executor = task -> handlers.execute(statementCounter.propagate(task));
+        String controllerPackage = CuboidController.class.getPackageName();
+        return new WebMvcRegistrations() {
+            @Override
+            public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+                return new OffloadingHandlerAdapter(executor, controllerPackage);
+            }
+        };
+    }
+
+    private Executor handlerExecutor() {
+        if (mode == ExecutionMode.VIRTUAL) {
+            Optional<ExecutorService> virtualThreads = VirtualThreads.newPerTaskExecutor();
+            if (virtualThreads.isPresent()) {
+                handlerExecutor = virtualThreads.get();
+                return new BoundedExecutor(handlerExecutor, jdbcPoolSize);
+            }
+            LOGGER.warn("Virtual threads are not supported by this runtime, running handlers on a bounded pool");
+        }
+
+        handlerExecutor = new ThreadPoolExecutor(jdbcPoolSize, jdbcPoolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("handler-"));
+        return handlerExecutor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (handlerExecutor != null) {
+            handlerExecutor.shutdown();
+        }
+    }
+
+}
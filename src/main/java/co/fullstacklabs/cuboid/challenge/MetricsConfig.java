@@ -0,0 +1,47 @@
+package co.fullstacklabs.cuboid.challenge;
+
+import co.fullstacklabs.cuboid.challenge.concurrency.OptimisticLockRetryAspect;
+import co.fullstacklabs.cuboid.challenge.metrics.StatementCounter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the application meters: service timers through {@link io.micrometer.core.annotation.Timed},
+ * optimistic lock retries and the statement counting behind the per-request DB round trips.
+ */
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "cuboid.service";
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder optimisticLockMetrics(OptimisticLockRetryAspect retryAspect) {
+        return registry -> {
+            FunctionCounter.builder("cuboid.optimistic.lock.conflicts", retryAspect,
+                            OptimisticLockRetryAspect::getConflictCount)
+                    .description("Optimistic lock failures, retried or not")
+                    .register(registry);
+            FunctionCounter.builder("cuboid.optimistic.lock.retries", retryAspect,
+                            OptimisticLockRetryAspect::getRetryCount)
+                    .description("Re-executions triggered by optimistic lock failures")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounting(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+}
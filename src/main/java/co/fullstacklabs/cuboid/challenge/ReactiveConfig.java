@@ -0,0 +1,64 @@
+package co.fullstacklabs.cuboid.challenge;
+
+import co.fullstacklabs.cuboid.challenge.repository.ReactiveBagRepository;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import reactor.core.Disposable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Opt-in reactive data access, enabled with cuboid.reactive.enabled. The R2DBC
+ * auto-configuration is excluded so the blocking stack keeps its single transaction
+ * manager; the reactive one is only reachable through the TransactionalOperator.
+ * The connection factory is deliberately not a bean: the DataSource
+ * auto-configuration backs off as soon as one is registered.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cuboid.reactive.enabled", havingValue = "true")
+@EnableR2dbcRepositories(basePackageClasses = ReactiveBagRepository.class)
+public class ReactiveConfig extends AbstractR2dbcConfiguration implements DisposableBean {
+
+    @Value("${cuboid.reactive.url}")
+    private String url;
+
+    @Value("${spring.datasource.username}")
+    private String username;
+
+    @Value("${spring.datasource.password}")
+    private String password;
+
+    private ConnectionFactory connectionFactory;
+
+    @Override
+    public synchronized ConnectionFactory connectionFactory() {
+        if (connectionFactory == null) {
+            connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                    .option(ConnectionFactoryOptions.USER, username)
+                    .option(ConnectionFactoryOptions.PASSWORD, password)
+                    .build());
+        }
+        return connectionFactory;
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory()));
+    }
+
+    @Override
+    public synchronized void destroy() {
+        if (connectionFactory instanceof Disposable) {
+            ((Disposable) connectionFactory).dispose();
+        }
+    }
+
+}
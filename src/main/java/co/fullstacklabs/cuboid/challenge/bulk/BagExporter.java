@@ -0,0 +1,131 @@
+package co.fullstacklabs.cuboid.challenge.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports every bag with its cuboids straight from a forward-only JDBC cursor.
+ *
+ * Bags and cuboids are read with one join ordered by bag, and each row is written out as
+ * soon as it is read, so no entity, collection or DTO is built and memory stays flat
+ * however many rows there are.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+public class BagExporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BagExporter.class);
+
+    private static final String SELECT_BAGS_WITH_CUBOIDS =
+            "select b.ID, b.TITLE, b.VOLUME, b.PAYLOAD_VOLUME, "
+                    + "c.ID as CUBOID_ID, c.WIDTH, c.HEIGHT, c.DEPTH, c.VOLUME as CUBOID_VOLUME "
+                    + "from BAGS b left join CUBOIDS c on c.BAG_ID = b.ID order by b.ID, c.ID";
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    @Autowired
+    public BagExporter(JdbcTemplate jdbc, ObjectMapper objectMapper,
+                       @Value("${cuboid.export.fetch-size:1000}") int fetchSize) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Writes every bag and its cuboids to the output, which is left open.
+     *
+     * @param output - Stream to write to
+     * @param format - Format of the export
+     * @param gzip - Whether to gzip what is written
+     */
+    public void export(OutputStream output, ExportFormat format, boolean gzip) throws IOException {
+        if (!gzip) {
+            export(output, format);
+            return;
+        }
+        GZIPOutputStream compressed = new GZIPOutputStream(output, 8192);
+        export(compressed, format);
+        compressed.finish();
+    }
+
+    private void export(OutputStream output, ExportFormat format) throws IOException {
+        BagRowHandler handler;
+        try (ExportFormat.RowWriter writer = format.open(output, objectMapper)) {
+            handler = new BagRowHandler(writer);
+            jdbc.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_BAGS_WITH_CUBOIDS,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, handler);
+            handler.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        LOGGER.info("Exported {} bags and {} cuboids as {}", handler.bags, handler.cuboids, format);
+    }
+
+    /** Hands the joined rows to the writer, opening a bag whenever the bag ID changes. */
+    private static final class BagRowHandler implements RowCallbackHandler {
+
+        private final ExportFormat.RowWriter writer;
+        private long bags;
+        private long cuboids;
+        private long bagId;
+
+        private BagRowHandler(ExportFormat.RowWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet resultSet) throws SQLException {
+            try {
+                long id = resultSet.getLong("ID");
+                if (bags == 0 || id != bagId) {
+                    if (bags > 0) {
+                        writer.endBag();
+                    }
+                    bagId = id;
+                    bags++;
+                    writer.startBag(id, resultSet.getString("TITLE"), resultSet.getDouble("VOLUME"),
+                            resultSet.getDouble("PAYLOAD_VOLUME"));
+                }
+                long cuboidId = resultSet.getLong("CUBOID_ID");
+                if (!resultSet.wasNull()) {
+                    cuboids++;
+                    writer.cuboid(cuboidId, resultSet.getFloat("WIDTH"), resultSet.getFloat("HEIGHT"),
+                            resultSet.getFloat("DEPTH"), resultSet.getDouble("CUBOID_VOLUME"));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void finish() throws IOException {
+            if (bags > 0) {
+                writer.endBag();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,142 @@
+package co.fullstacklabs.cuboid.challenge.bulk;
+
+import co.fullstacklabs.cuboid.challenge.dto.ImportReportDTO;
+import co.fullstacklabs.cuboid.challenge.exception.UnprocessableEntityException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Imports bags and cuboids from a CSV or NDJSON stream through a bounded pipeline.
+ *
+ * A reader thread parses and validates the rows and puts them on a bounded queue; the
+ * calling thread drains the queue into batches and hands each batch to ImportBatchWriter.
+ * The queue bounds memory however large the input is, and parsing overlaps with writing.
+ * Batches are committed one by one, so a failed row or batch does not undo earlier ones.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+public class BulkImporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkImporter.class);
+
+    private final ImportBatchWriter writer;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final ExecutorService readers;
+
+    @Autowired
+    public BulkImporter(ImportBatchWriter writer, ObjectMapper objectMapper,
+                        @Value("${cuboid.import.batch-size:1000}") int batchSize,
+                        @Value("${cuboid.import.queue-capacity:10000}") int queueCapacity) {
+        this.writer = writer;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threads = new AtomicInteger();
+        this.readers = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "import-reader-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reads the whole input and writes every valid row.
+     *
+     * @param input - CSV or NDJSON content, UTF-8 encoded
+     * @param format - Format of the input
+     * @return ImportReportDTO with the totals and the rejected rows
+     */
+    public ImportReportDTO importFrom(InputStream input, ImportFormat format) {
+        BlockingQueue<ImportRow> queue = new ArrayBlockingQueue<>(queueCapacity);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Future<?> producer = readers.submit(() -> read(format.open(reader, objectMapper), queue));
+
+        ImportReport report = new ImportReport();
+        Map<String, Long> bagKeys = new HashMap<>();
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        try {
+            boolean ended = false;
+            while (!ended) {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - batch.size());
+                ended = batch.remove(ImportRow.END);
+                if (!batch.isEmpty()) {
+                    writer.write(batch, bagKeys, report);
+                    batch.clear();
+                }
+            }
+            producer.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnprocessableEntityException("Import was interrupted!");
+        } catch (ExecutionException e) {
+            LOGGER.warn("Import input could not be read", e.getCause());
+            throw new UnprocessableEntityException("Import input could not be read: " + e.getCause().getMessage());
+        } finally {
+            producer.cancel(true);
+        }
+
+        ImportReportDTO result = report.toDTO();
+        LOGGER.info("Imported {} bags and {} cuboids, rejected {} rows",
+                result.getBagsImported(), result.getCuboidsImported(), result.getRowsRejected());
+        return result;
+    }
+
+    private static void read(ImportFormat.RowReader rows, BlockingQueue<ImportRow> queue) {
+        try {
+            ImportRow row;
+            while ((row = rows.next()) != null) {
+                queue.put(row);
+            }
+            queue.put(ImportRow.END);
+        } catch (IOException e) {
+            putEnd(queue);
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Lets the writer stop after a read failure; it finds out about the failure from the reader's future. */
+    private static void putEnd(BlockingQueue<ImportRow> queue) {
+        try {
+            queue.put(ImportRow.END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        readers.shutdownNow();
+    }
+
+}
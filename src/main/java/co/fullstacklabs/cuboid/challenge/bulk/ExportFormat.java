@@ -0,0 +1,145 @@
+package co.fullstacklabs.cuboid.challenge.bulk;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * File formats the export writes.
+ *
+ * NDJSON writes one line per bag, shaped like BagDTO with its cuboids nested. CSV writes
+ * the rows the import reads: a bag row keyed by the bag ID followed by its cuboid rows
+ * referencing that key, so an export can be imported again as is.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@Getter
+public enum ExportFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON_VALUE, "ndjson") {
+        @Override
+        RowWriter open(OutputStream output, ObjectMapper objectMapper) throws IOException {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            return new RowWriter() {
+                private long bagId;
+
+                @Override
+                void startBag(long id, String title, double volume, double payloadVolume) throws IOException {
+                    bagId = id;
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", id);
+                    generator.writeNumberField("volume", volume);
+                    generator.writeStringField("title", title);
+                    generator.writeNumberField("payloadVolume", payloadVolume);
+                    generator.writeNumberField("availableVolume", volume - payloadVolume);
+                    generator.writeArrayFieldStart("cuboids");
+                }
+
+                @Override
+                void cuboid(long id, float width, float height, float depth, double volume) throws IOException {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", id);
+                    generator.writeNumberField("width", width);
+                    generator.writeNumberField("height", height);
+                    generator.writeNumberField("depth", depth);
+                    generator.writeNumberField("volume", volume);
+                    generator.writeNumberField("bagId", bagId);
+                    generator.writeEndObject();
+                }
+
+                @Override
+                void endBag() throws IOException {
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    generator.close();
+                }
+            };
+        }
+    },
+
+    CSV("text/csv", "csv") {
+        @Override
+        RowWriter open(OutputStream output, ObjectMapper objectMapper) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+            writer.write("type,key,title,volume,width,height,depth,bagKey\n");
+            return new RowWriter() {
+                private long bagId;
+
+                @Override
+                void startBag(long id, String title, double volume, double payloadVolume) throws IOException {
+                    bagId = id;
+                    writer.write("bag," + id + "," + quoteCsv(title) + "," + volume + ",,,,\n");
+                }
+
+                @Override
+                void cuboid(long id, float width, float height, float depth, double volume) throws IOException {
+                    writer.write("cuboid,,,," + width + "," + height + "," + depth + "," + bagId + "\n");
+                }
+
+                @Override
+                void endBag() {
+                    // Cuboid rows carry their bag key; nothing closes a bag.
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.flush();
+                }
+            };
+        }
+    };
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    abstract RowWriter open(OutputStream output, ObjectMapper objectMapper) throws IOException;
+
+    /**
+     * Receives the bags in order, each followed by its cuboids. Closing flushes what is
+     * buffered but leaves the underlying stream open.
+     */
+    abstract static class RowWriter implements AutoCloseable {
+
+        abstract void startBag(long id, String title, double volume, double payloadVolume) throws IOException;
+
+        abstract void cuboid(long id, float width, float height, float depth, double volume) throws IOException;
+
+        abstract void endBag() throws IOException;
+
+        @Override
+        public abstract void close() throws IOException;
+
+    }
+
+    /**
+     * Quotes a CSV value when it holds a comma, a quote or a line break.
+     */
+    static String quoteCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+}
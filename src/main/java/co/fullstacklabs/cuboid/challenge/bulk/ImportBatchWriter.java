@@ -0,0 +1,284 @@
+package co.fullstacklabs.cuboid.challenge.bulk;
+
+import co.fullstacklabs.cuboid.challenge.cache.BagCache;
+import co.fullstacklabs.cuboid.challenge.concurrency.BagCapacityLedger;
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.event.BagCreated;
+import co.fullstacklabs.cuboid.challenge.event.CuboidCreated;
+import co.fullstacklabs.cuboid.challenge.index.CuboidIndexes;
+import co.fullstacklabs.cuboid.challenge.model.Bag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes one batch of import rows in its own transaction with JDBC batch statements.
+ *
+ * The bags the batch adds cuboids to are locked first, so the capacity check runs
+ * against their current payload; cuboids are then admitted one by one, in file order,
+ * and each bag's payload is updated once for the whole batch. The version bump makes
+ * concurrent JPA writers to the same bags retry against the new payload.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+class ImportBatchWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportBatchWriter.class);
+
+    static final String BATCH_FAILED = "Batch could not be written.";
+
+    private static final String NEXT_BAG_IDS =
+            "select next value for BAGS_SEQ from system_range(1, :blocks)";
+    private static final String NEXT_CUBOID_IDS =
+            "select next value for CUBOIDS_SEQ from system_range(1, :blocks)";
+    private static final String INSERT_BAG =
+            "insert into BAGS (ID, VOLUME, TITLE, PAYLOAD_VOLUME) values (:id, :volume, :title, 0)";
+    private static final String LOCK_BAGS =
+            "select ID, VOLUME, TITLE, PAYLOAD_VOLUME from BAGS where ID in (:ids) for update";
+    private static final String INSERT_CUBOID =
+            "insert into CUBOIDS (ID, WIDTH, HEIGHT, DEPTH, BAG_ID) values (:id, :width, :height, :depth, :bagId)";
+    private static final String UPDATE_PAYLOAD =
+            "update BAGS set PAYLOAD_VOLUME = :payload, VERSION = VERSION + 1 where ID = :id";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final BagCapacityLedger ledger;
+    private final BagCache bagCache;
+    private final CuboidIndexes indexes;
+    private final ApplicationEventPublisher events;
+    private final int allocationSize;
+
+    @Autowired
+    ImportBatchWriter(NamedParameterJdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                      BagCapacityLedger ledger, BagCache bagCache, CuboidIndexes indexes,
+                      ApplicationEventPublisher events,
+                      @Value("${cuboid.id.allocation-size:50}") int allocationSize) {
+        this.jdbc = jdbc;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.ledger = ledger;
+        this.bagCache = bagCache;
+        this.indexes = indexes;
+        this.events = events;
+        this.allocationSize = allocationSize;
+    }
+
+    /**
+     * Writes the valid rows of a batch, recording in the report what was imported or rejected,
+     * rejections in line order. If the transaction fails, it is logged and the rows of the
+     * batch are rejected: invalid ones with their own error, the others with BATCH_FAILED.
+     *
+     * @param batch - Rows in file order
+     * @param bagKeys - IDs of the bags imported so far, by file key; updated once the batch commits
+     * @param report - Import report
+     */
+    void write(List<ImportRow> batch, Map<String, Long> bagKeys, ImportReport report) {
+        Map<String, Long> newKeys = new HashMap<>();
+        Map<ImportRow, String> rejections = new IdentityHashMap<>();
+        ImportReport batchReport = new ImportReport();
+        try {
+            transaction.executeWithoutResult(status -> writeRows(batch, bagKeys, newKeys, rejections, batchReport));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Import batch of lines {} to {} could not be written",
+                    batch.get(0).getLine(), batch.get(batch.size() - 1).getLine(), e);
+            batch.forEach(row -> report.reject(row, row.isValid() ? BATCH_FAILED : row.getError()));
+            return;
+        }
+        bagKeys.putAll(newKeys);
+        batch.stream()
+                .filter(rejections::containsKey)
+                .forEach(row -> batchReport.reject(row, rejections.get(row)));
+        report.add(batchReport);
+    }
+
+    private void writeRows(List<ImportRow> batch, Map<String, Long> bagKeys, Map<String, Long> newKeys,
+                           Map<ImportRow, String> rejections, ImportReport report) {
+        List<ImportRow> bagRows = new ArrayList<>();
+        List<ImportRow> cuboidRows = new ArrayList<>();
+        for (ImportRow row : batch) {
+            if (!row.isValid()) {
+                rejections.put(row, row.getError());
+            } else if (row.getType() == ImportRow.Type.BAG) {
+                bagRows.add(row);
+            } else {
+                cuboidRows.add(row);
+            }
+        }
+
+        insertBags(bagRows, bagKeys, newKeys, rejections, report);
+
+        Set<Long> bagIds = new LinkedHashSet<>();
+        List<Long> cuboidBagIds = new ArrayList<>(cuboidRows.size());
+        for (ImportRow row : cuboidRows) {
+            Long bagId = resolveBag(row, bagKeys, newKeys);
+            cuboidBagIds.add(bagId);
+            if (bagId != null) {
+                bagIds.add(bagId);
+            }
+        }
+        Map<Long, Bag> bags = lockBags(bagIds);
+
+        List<ImportRow> admitted = new ArrayList<>(cuboidRows.size());
+        List<Long> admittedBagIds = new ArrayList<>(cuboidRows.size());
+        Map<Long, Double> volumeByBag = new LinkedHashMap<>();
+        for (int i = 0; i < cuboidRows.size(); i++) {
+            ImportRow row = cuboidRows.get(i);
+            Bag bag = cuboidBagIds.get(i) == null ? null : bags.get(cuboidBagIds.get(i));
+            if (bag == null) {
+                rejections.put(row, "Object Bag not found!");
+            } else if (bag.getAvailableVolume() < row.getCuboidVolume()) {
+                rejections.put(row, "Bag capacity is not enough!");
+            } else {
+                ledger.track(bag);
+                bag.setPayloadVolume(bag.getPayloadVolume() + row.getCuboidVolume());
+                volumeByBag.merge(bag.getId(), row.getCuboidVolume(), Double::sum);
+                admitted.add(row);
+                admittedBagIds.add(bag.getId());
+            }
+        }
+
+        insertCuboids(admitted, admittedBagIds, report);
+
+        MapSqlParameterSource[] payloads = volumeByBag.keySet().stream()
+                .map(bagId -> new MapSqlParameterSource()
+                        .addValue("id", bagId)
+                        .addValue("payload", bags.get(bagId).getPayloadVolume()))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbc.batchUpdate(UPDATE_PAYLOAD, payloads);
+
+        volumeByBag.forEach((bagId, volume) -> {
+            ledger.reserve(bagId, volume);
+            bagCache.evict(bagId);
+        });
+    }
+
+    private void insertBags(List<ImportRow> bagRows, Map<String, Long> bagKeys, Map<String, Long> newKeys,
+                            Map<ImportRow, String> rejections, ImportReport report) {
+        List<ImportRow> inserted = new ArrayList<>(bagRows.size());
+        Set<String> keys = new HashSet<>();
+        for (ImportRow row : bagRows) {
+            String key = row.getKey();
+            if (key != null && (bagKeys.containsKey(key) || !keys.add(key))) {
+                rejections.put(row, "Duplicate bag key: " + key);
+            } else {
+                inserted.add(row);
+            }
+        }
+
+        List<Long> ids = nextIds(NEXT_BAG_IDS, inserted.size());
+        MapSqlParameterSource[] params = new MapSqlParameterSource[inserted.size()];
+        for (int i = 0; i < inserted.size(); i++) {
+            ImportRow row = inserted.get(i);
+            params[i] = new MapSqlParameterSource()
+                    .addValue("id", ids.get(i))
+                    .addValue("volume", row.getVolume())
+                    .addValue("title", row.getTitle());
+            if (row.getKey() != null) {
+                newKeys.put(row.getKey(), ids.get(i));
+            }
+        }
+        jdbc.batchUpdate(INSERT_BAG, params);
+        for (int i = 0; i < inserted.size(); i++) {
+            ImportRow row = inserted.get(i);
+            events.publishEvent(new BagCreated(BagDTO.builder()
+                    .id(ids.get(i))
+                    .title(row.getTitle())
+                    .volume(row.getVolume())
+                    .payloadVolume(0d)
+                    .availableVolume(row.getVolume())
+                    .cuboids(List.of())
+                    .build()));
+        }
+        report.bagsImported(inserted.size());
+    }
+
+    private void insertCuboids(List<ImportRow> rows, List<Long> bagIds, ImportReport report) {
+        List<Long> ids = nextIds(NEXT_CUBOID_IDS, rows.size());
+        MapSqlParameterSource[] params = new MapSqlParameterSource[rows.size()];
+        List<CuboidDTO> cuboids = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            params[i] = new MapSqlParameterSource()
+                    .addValue("id", ids.get(i))
+                    .addValue("width", row.getWidth())
+                    .addValue("height", row.getHeight())
+                    .addValue("depth", row.getDepth())
+                    .addValue("bagId", bagIds.get(i));
+            cuboids.add(CuboidDTO.builder()
+                    .id(ids.get(i))
+                    .width(row.getWidth())
+                    .height(row.getHeight())
+                    .depth(row.getDepth())
+                    .volume(row.getCuboidVolume())
+                    .bagId(bagIds.get(i))
+                    .build());
+        }
+        jdbc.batchUpdate(INSERT_CUBOID, params);
+        indexes.putAll(cuboids);
+        if (!cuboids.isEmpty()) {
+            events.publishEvent(new CuboidCreated(cuboids));
+        }
+        report.cuboidsImported(rows.size());
+    }
+
+    private static Long resolveBag(ImportRow row, Map<String, Long> bagKeys, Map<String, Long> newKeys) {
+        if (row.getBagId() != null) {
+            return row.getBagId();
+        }
+        Long bagId = newKeys.get(row.getBagKey());
+        return bagId != null ? bagId : bagKeys.get(row.getBagKey());
+    }
+
+    private Map<Long, Bag> lockBags(Set<Long> bagIds) {
+        Map<Long, Bag> bags = new HashMap<>();
+        if (bagIds.isEmpty()) {
+            return bags;
+        }
+        jdbc.query(LOCK_BAGS, new MapSqlParameterSource("ids", bagIds), resultSet -> {
+            Bag bag = new Bag(resultSet.getString("TITLE"), resultSet.getDouble("VOLUME"));
+            bag.setId(resultSet.getLong("ID"));
+            bag.setPayloadVolume(resultSet.getDouble("PAYLOAD_VOLUME"));
+            bags.put(bag.getId(), bag);
+        });
+        return bags;
+    }
+
+    /**
+     * Takes IDs in blocks the way the pooled-lo optimizer does: each sequence value is the
+     * first of allocationSize IDs reserved for the caller.
+     */
+    private List<Long> nextIds(String sql, int count) {
+        if (count == 0) {
+            return List.of();
+        }
+        int blocks = (count + allocationSize - 1) / allocationSize;
+        List<Long> ids = new ArrayList<>(count);
+        for (long first : jdbc.queryForList(sql, new MapSqlParameterSource("blocks", blocks), Long.class)) {
+            for (int i = 0; i < allocationSize && ids.size() < count; i++) {
+                ids.add(first + i);
+            }
+        }
+        return ids;
+    }
+
+}
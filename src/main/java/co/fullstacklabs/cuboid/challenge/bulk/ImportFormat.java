@@ -0,0 +1,169 @@
+package co.fullstacklabs.cuboid.challenge.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * File formats the import reads, one row per line.
+ *
+ * CSV files start with a header naming the columns (type, key, title, volume, width,
+ * height, depth, bagKey, bagId, in any order); NDJSON lines are objects with the same
+ * field names. Blank lines are skipped in both.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public enum ImportFormat {
+
+    CSV {
+        @Override
+        RowReader open(BufferedReader reader, ObjectMapper objectMapper) {
+            return new RowReader(reader) {
+                private List<String> header;
+
+                @Override
+                ImportRow parse(long line, String text) {
+                    List<String> values = splitCsv(text);
+                    if (header == null) {
+                        header = new ArrayList<>(values.size());
+                        values.forEach(name -> header.add(ImportRow.fieldName(name)));
+                        return null;
+                    }
+                    if (values.size() > header.size()) {
+                        return ImportRow.invalid(line, null, "Row has more values than the header.");
+                    }
+                    Map<String, String> fields = new HashMap<>();
+                    for (int i = 0; i < values.size(); i++) {
+                        fields.put(header.get(i), values.get(i));
+                    }
+                    return ImportRow.parse(line, fields);
+                }
+            };
+        }
+    },
+
+    NDJSON {
+        @Override
+        RowReader open(BufferedReader reader, ObjectMapper objectMapper) {
+            return new RowReader(reader) {
+                @Override
+                ImportRow parse(long line, String text) {
+                    JsonNode node;
+                    try {
+                        node = objectMapper.readTree(text);
+                    } catch (JsonProcessingException e) {
+                        return ImportRow.invalid(line, null, "Malformed JSON: " + e.getOriginalMessage());
+                    }
+                    if (!node.isObject()) {
+                        return ImportRow.invalid(line, null, "Row must be a JSON object.");
+                    }
+                    Map<String, String> fields = new HashMap<>();
+                    for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                        Map.Entry<String, JsonNode> field = it.next();
+                        if (!field.getValue().isNull()) {
+                            fields.put(ImportRow.fieldName(field.getKey()), field.getValue().asText());
+                        }
+                    }
+                    return ImportRow.parse(line, fields);
+                }
+            };
+        }
+    };
+
+    abstract RowReader open(BufferedReader reader, ObjectMapper objectMapper);
+
+    /**
+     * Picks the format from a file name, by its extension.
+     *
+     * @param fileName - Name of the file to import
+     * @return ImportFormat
+     */
+    public static ImportFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unknown import file type: " + fileName);
+    }
+
+    /**
+     * Reads rows line by line, keeping track of line numbers.
+     */
+    abstract static class RowReader {
+
+        private final BufferedReader reader;
+        private long line;
+
+        RowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * @return the next row, or null at the end of the input
+         */
+        ImportRow next() throws IOException {
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (!text.isBlank()) {
+                    ImportRow row = parse(line, text);
+                    if (row != null) {
+                        return row;
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return the row on the line, or null when the line holds no row
+         */
+        abstract ImportRow parse(long line, String text);
+
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted values with "" as an escaped quote.
+     */
+    static List<String> splitCsv(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+}
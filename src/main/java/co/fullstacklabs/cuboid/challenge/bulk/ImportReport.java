@@ -0,0 +1,65 @@
+package co.fullstacklabs.cuboid.challenge.bulk;
+
+import co.fullstacklabs.cuboid.challenge.dto.ImportReportDTO;
+import co.fullstacklabs.cuboid.challenge.exception.ErrorDetails;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Running totals of an import, kept by the single thread that writes the batches.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+final class ImportReport {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long bags;
+    private long cuboids;
+    private long rejected;
+    private final List<ErrorDetails> errors = new ArrayList<>();
+
+    void bagsImported(long count) {
+        bags += count;
+    }
+
+    void cuboidsImported(long count) {
+        cuboids += count;
+    }
+
+    void reject(ImportRow row, String message) {
+        rejected++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ErrorDetails(message, "line " + row.getLine()));
+        }
+    }
+
+    /**
+     * Adds the totals of a committed batch.
+     *
+     * @param batch - Report of the batch
+     */
+    void add(ImportReport batch) {
+        bags += batch.bags;
+        cuboids += batch.cuboids;
+        rejected += batch.rejected;
+        for (ErrorDetails error : batch.errors) {
+            if (errors.size() >= MAX_REPORTED_ERRORS) {
+                break;
+            }
+            errors.add(error);
+        }
+    }
+
+    ImportReportDTO toDTO() {
+        return ImportReportDTO.builder()
+                .bagsImported(bags)
+                .cuboidsImported(cuboids)
+                .rowsRejected(rejected)
+                .errors(List.copyOf(errors))
+                .build();
+    }
+
+}
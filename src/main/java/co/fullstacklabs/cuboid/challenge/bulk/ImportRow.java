@@ -0,0 +1,146 @@
+package co.fullstacklabs.cuboid.challenge.bulk;
+
+import co.fullstacklabs.cuboid.challenge.model.Bag;
+import lombok.AccessLevel;
+import lombok.Getter;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One parsed line of an import file: either a bag or a cuboid.
+ *
+ * Bags may carry a key, local to the file, that later cuboids use to reference them.
+ * Cuboids reference either such a key or the ID of a bag already in the database.
+ * A row that fails validation keeps its error and is reported instead of written.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@Getter(AccessLevel.PACKAGE)
+final class ImportRow {
+
+    /** Marks the end of the input on the pipeline queue. */
+    static final ImportRow END = new ImportRow(-1L, null);
+
+    enum Type { BAG, CUBOID }
+
+    private final long line;
+    private final Type type;
+    private String key;
+    private String title;
+    private double volume;
+    private float width;
+    private float height;
+    private float depth;
+    private String bagKey;
+    private Long bagId;
+    private String error;
+
+    private ImportRow(long line, Type type) {
+        this.line = line;
+        this.type = type;
+    }
+
+    /**
+     * Builds and validates a row from its named fields.
+     *
+     * @param line - Line number in the file, for error reporting
+     * @param fields - Field values by lower-case name; blank values count as missing
+     * @return ImportRow, carrying an error when invalid
+     */
+    static ImportRow parse(long line, Map<String, String> fields) {
+        String type = value(fields, "type");
+        if ("bag".equalsIgnoreCase(type)) {
+            return parseBag(line, fields);
+        }
+        if ("cuboid".equalsIgnoreCase(type)) {
+            return parseCuboid(line, fields);
+        }
+        return invalid(line, null, "Row type must be bag or cuboid.");
+    }
+
+    static ImportRow invalid(long line, Type type, String error) {
+        ImportRow row = new ImportRow(line, type);
+        row.error = error;
+        return row;
+    }
+
+    private static ImportRow parseBag(long line, Map<String, String> fields) {
+        ImportRow row = new ImportRow(line, Type.BAG);
+        try {
+            row.key = value(fields, "key");
+            row.title = value(fields, "title");
+            if (row.title == null) {
+                return invalid(line, Type.BAG, "Bag title can't be null.");
+            }
+            if (row.title.length() > Bag.TITLE_MAX_SIZE) {
+                return invalid(line, Type.BAG, "Bag title maximum size is " + Bag.TITLE_MAX_SIZE + " characters.");
+            }
+            Double volume = number(fields, "volume", "Bag volume can't be null.");
+            if (volume <= 0) {
+                return invalid(line, Type.BAG, "Bag volume must be positive.");
+            }
+            row.volume = volume;
+        } catch (IllegalArgumentException e) {
+            return invalid(line, Type.BAG, e.getMessage());
+        }
+        return row;
+    }
+
+    private static ImportRow parseCuboid(long line, Map<String, String> fields) {
+        ImportRow row = new ImportRow(line, Type.CUBOID);
+        try {
+            row.width = side(fields, "width");
+            row.height = side(fields, "height");
+            row.depth = side(fields, "depth");
+            row.bagKey = value(fields, "bagkey");
+            String bagId = value(fields, "bagid");
+            if ((row.bagKey == null) == (bagId == null)) {
+                return invalid(line, Type.CUBOID, "Cuboid must reference exactly one of bagKey or bagId.");
+            }
+            row.bagId = bagId == null ? null : Long.valueOf(bagId);
+        } catch (IllegalArgumentException e) {
+            return invalid(line, Type.CUBOID, e.getMessage());
+        }
+        return row;
+    }
+
+    private static float side(Map<String, String> fields, String name) {
+        double side = number(fields, name, "Cuboid " + name + " can't be null.");
+        if (side <= 0) {
+            throw new IllegalArgumentException("Cuboid " + name + " must be positive.");
+        }
+        return (float) side;
+    }
+
+    private static Double number(Map<String, String> fields, String name, String missing) {
+        String value = value(fields, name);
+        if (value == null) {
+            throw new IllegalArgumentException(missing);
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + name + ": " + value, e);
+        }
+    }
+
+    private static String value(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    double getCuboidVolume() {
+        return (double) width * height * depth;
+    }
+
+    boolean isValid() {
+        return error == null;
+    }
+
+    static String fieldName(String header) {
+        return header.trim().toLowerCase(Locale.ROOT);
+    }
+
+}
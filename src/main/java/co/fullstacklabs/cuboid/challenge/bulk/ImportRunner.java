@@ -0,0 +1,54 @@
+package co.fullstacklabs.cuboid.challenge.bulk;
+
+import co.fullstacklabs.cuboid.challenge.dto.ImportReportDTO;
+import co.fullstacklabs.cuboid.challenge.exception.ErrorDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports the file named by cuboid.import.file at startup, picking the format from its
+ * extension (.csv, .ndjson or .jsonl). Run it without a web server to import and exit:
+ * java -jar cuboid-challenge.jar --cuboid.import.file=data.csv --spring.main.web-application-type=none
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+@ConditionalOnProperty(name = "cuboid.import.file")
+public class ImportRunner implements ApplicationRunner {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportRunner.class);
+
+    private final BulkImporter importer;
+    private final Path file;
+
+    @Autowired
+    public ImportRunner(BulkImporter importer, @Value("${cuboid.import.file}") Path file) {
+        this.importer = importer;
+        this.file = file;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        ImportReportDTO report;
+        try (InputStream input = Files.newInputStream(file)) {
+            report = importer.importFrom(input, ImportFormat.fromFileName(file.getFileName().toString()));
+        }
+        for (ErrorDetails error : report.getErrors()) {
+            LOGGER.warn("{}: {}", error.getDetails(), error.getMessage());
+        }
+    }
+
+}
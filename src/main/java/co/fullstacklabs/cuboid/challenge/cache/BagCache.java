@@ -0,0 +1,138 @@
+package co.fullstacklabs.cuboid.challenge.cache;
+
+import co.fullstacklabs.cuboid.challenge.CacheConfig;
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Caches bags by ID and invalidates them when their cuboids change.
+ *
+ * Evictions requested inside a transaction are applied after it commits, so a
+ * concurrent read cannot put the old bag back in the cache between the eviction
+ * and the commit. A read that loaded the bag before the commit can still finish
+ * after the eviction, so every eviction also bumps an invalidation counter for the
+ * bag's stripe, and a read whose stripe was bumped while it loaded evicts the copy
+ * it just cached.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+public class BagCache {
+
+    private static final int STRIPES = 64;
+
+    private final CacheManager cacheManager;
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+    @Autowired
+    public BagCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Returns the cached bag, or loads and caches it. The loaded copy is evicted again
+     * when the bag was invalidated while it was loading, since it may predate the commit.
+     *
+     * @param bagId - Bag ID
+     * @param loader - Reads the bag from the database
+     * @return BagDTO
+     */
+    public BagDTO get(long bagId, LongFunction<BagDTO> loader) {
+        Cache bags = bags();
+        Cache.ValueWrapper cached = bags.get(bagId);
+        if (cached != null) {
+            return (BagDTO) cached.get();
+        }
+        int stripe = stripe(bagId);
+        long stamp = invalidations.get(stripe);
+        BagDTO bag = loader.apply(bagId);
+        bags.put(bagId, bag);
+        if (invalidations.get(stripe) != stamp) {
+            bags.evict(bagId);
+        }
+        return bag;
+    }
+
+    /**
+     * Evicts one bag.
+     *
+     * @param bagId - Bag ID
+     */
+    public void evict(long bagId) {
+        afterCommit(() -> {
+            invalidations.incrementAndGet(stripe(bagId));
+            bags().evict(bagId);
+        });
+    }
+
+    /**
+     * Evicts every bag.
+     */
+    public void clear() {
+        afterCommit(() -> {
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                invalidations.incrementAndGet(stripe);
+            }
+            bags().clear();
+        });
+    }
+
+    /**
+     * Puts a bag in the cache ahead of the first read, as findById would.
+     *
+     * @param bag - Bag with its cuboids, as read from the database
+     */
+    public void warm(BagDTO bag) {
+        bags().put(bag.getId(), bag);
+    }
+
+    /**
+     * IDs of the bags cached right now, or none when the cache cannot list its keys.
+     *
+     * @return Set<Long>
+     */
+    public Set<Long> cachedIds() {
+        Object cache = bags().getNativeCache();
+        if (!(cache instanceof com.github.benmanes.caffeine.cache.Cache)) {
+            return Set.of();
+        }
+        return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cache).asMap().keySet().stream()
+                .filter(Long.class::isInstance)
+                .map(Long.class::cast)
+                .collect(Collectors.toSet());
+    }
+
+    private static int stripe(long bagId) {
+        return Long.hashCode(bagId) & (STRIPES - 1);
+    }
+
+    private Cache bags() {
+        return cacheManager.getCache(CacheConfig.BAGS_CACHE);
+    }
+
+    private void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        } else {
+            eviction.run();
+        }
+    }
+
+}
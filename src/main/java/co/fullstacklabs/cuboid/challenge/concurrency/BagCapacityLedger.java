@@ -0,0 +1,118 @@
+package co.fullstacklabs.cuboid.challenge.concurrency;
+
+import co.fullstacklabs.cuboid.challenge.model.Bag;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of the volume still available in each bag, used to reject
+ * cuboids that obviously do not fit before going to the database.
+ *
+ * Each bag holds its remaining volume as the bits of a double inside an
+ * AtomicLong, so concurrent writers on the same bag only contend on a CAS and
+ * writers on different bags do not contend at all. The database stays the
+ * source of truth: a bag enters the ledger with the available volume read in a
+ * transaction, and reservations made inside a transaction are given back if it
+ * rolls back.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+public class BagCapacityLedger {
+
+    private final Map<Long, AtomicLong> remaining = new ConcurrentHashMap<>();
+
+    /**
+     * Tells whether a cuboid of the given volume is known not to fit in the bag.
+     * Bags the ledger has not seen yet are never rejected.
+     *
+     * @param bagId - Bag ID
+     * @param volume - Cuboid volume
+     * @return boolean
+     */
+    public boolean rejects(long bagId, double volume) {
+        AtomicLong entry = remaining.get(bagId);
+        return entry != null && Double.longBitsToDouble(entry.get()) < volume;
+    }
+
+    /**
+     * Starts tracking a bag with the available volume it was loaded with.
+     * Must be called before the bag payload is changed in the current transaction.
+     *
+     * @param bag - Bag read from the database
+     */
+    public void track(Bag bag) {
+        remaining.computeIfAbsent(bag.getId(), id -> new AtomicLong(Double.doubleToRawLongBits(bag.getAvailableVolume())));
+    }
+
+    /**
+     * Takes volume from a bag right away, giving it back if the current transaction rolls back.
+     *
+     * @param bagId - Bag ID
+     * @param volume - Volume to reserve
+     */
+    public void reserve(long bagId, double volume) {
+        add(bagId, -volume);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        add(bagId, volume);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Gives volume back to a bag once the current transaction commits.
+     *
+     * @param bagId - Bag ID
+     * @param volume - Volume to release
+     */
+    public void release(long bagId, double volume) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(bagId, volume);
+                }
+            });
+        } else {
+            add(bagId, volume);
+        }
+    }
+
+    /**
+     * Forgets every bag once the current transaction commits, so they are tracked
+     * again from the database on their next write.
+     */
+    public void reset() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remaining.clear();
+                }
+            });
+        } else {
+            remaining.clear();
+        }
+    }
+
+    private void add(long bagId, double delta) {
+        AtomicLong entry = remaining.get(bagId);
+        if (entry != null) {
+            entry.updateAndGet(bits -> Double.doubleToRawLongBits(Double.longBitsToDouble(bits) + delta));
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package co.fullstacklabs.cuboid.challenge.concurrency;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.exception.UnprocessableEntityException;
+import co.fullstacklabs.cuboid.challenge.metrics.CapacityMetrics;
+import org.springframework.stereotype.Component;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rejects cuboids the capacity ledger already knows cannot fit, before the service
+ * is called, so a rejection costs no transaction, connection or query. Passing the
+ * precheck admits nothing: the service checks the persisted payload again in its
+ * transaction, and that check is the one that counts.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+public class CapacityPrecheck {
+
+    private final BagCapacityLedger ledger;
+    private final CapacityMetrics capacityMetrics;
+
+    public CapacityPrecheck(BagCapacityLedger ledger, CapacityMetrics capacityMetrics) {
+        this.ledger = ledger;
+        this.capacityMetrics = capacityMetrics;
+    }
+
+    /**
+     * Rejects a cuboid that obviously does not fit in its bag.
+     *
+     * @param cuboidDTO - Cuboid about to be created
+     */
+    public void check(CuboidDTO cuboidDTO) {
+        check(cuboidDTO.getBagId(), volume(cuboidDTO));
+    }
+
+    /**
+     * Rejects a batch whose cuboids obviously do not fit in their bags, adding up the
+     * cuboids that go to the same bag.
+     *
+     * @param cuboidDTOs - Cuboids about to be created
+     */
+    public void checkAll(List<CuboidDTO> cuboidDTOs) {
+        Map<Long, Double> volumeByBag = new LinkedHashMap<>();
+        for (CuboidDTO cuboidDTO : cuboidDTOs) {
+            volumeByBag.merge(cuboidDTO.getBagId(), volume(cuboidDTO), Double::sum);
+        }
+        volumeByBag.forEach(this::check);
+    }
+
+    private void check(Long bagId, double volume) {
+        if (bagId != null && ledger.rejects(bagId, volume)) {
+            capacityMetrics.rejected(CapacityMetrics.LEDGER_CHECK);
+            throw new UnprocessableEntityException("Bag capacity is not enough!");
+        }
+    }
+
+    private static double volume(CuboidDTO cuboidDTO) {
+        return (double) cuboidDTO.getWidth() * cuboidDTO.getHeight() * cuboidDTO.getDepth();
+    }
+
+}
@@ -0,0 +1,95 @@
+package co.fullstacklabs.cuboid.challenge.concurrency;
+
+import co.fullstacklabs.cuboid.challenge.exception.ConflictException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Re-runs methods annotated with {@link RetryOnOptimisticLock} when a concurrent
+ * writer bumped the version of an entity they touched. The aspect runs before the
+ * transaction advice, so every attempt gets a fresh transaction and fresh entities.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OptimisticLockRetryAspect {
+
+    private final int maxRetries;
+    private final long backoffMillis;
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    public OptimisticLockRetryAspect(@Value("${cuboid.admission.max-retries:5}") int maxRetries,
+                                     @Value("${cuboid.admission.backoff-millis:10}") long backoffMillis) {
+        this.maxRetries = maxRetries;
+        this.backoffMillis = backoffMillis;
+    }
+
+    @Around("@annotation(co.fullstacklabs.cuboid.challenge.concurrency.RetryOnOptimisticLock)")
+    public Object retry(ProceedingJoinPoint joinPoint) throws Throwable {
+        int attempt = 0;
+        while (true) {
+            try {
+                return joinPoint.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                conflicts.increment();
+                if (attempt >= maxRetries) {
+                    throw new ConflictException("Bag was modified concurrently, please try again!");
+                }
+                attempt++;
+                retries.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Sleeps a random time up to an exponentially growing ceiling (full jitter),
+     * so writers that collided once do not collide again in lockstep.
+     */
+    private void backoff(int attempt) {
+        long ceiling = backoffMillis << Math.min(attempt - 1, 10);
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting to retry a conflicting write!");
+        }
+    }
+
+    /**
+     * Number of optimistic lock failures seen, including the ones that were retried.
+     *
+     * @return long
+     */
+    public long getConflictCount() {
+        return conflicts.sum();
+    }
+
+    /**
+     * Number of re-executions triggered by optimistic lock failures.
+     *
+     * @return long
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+}
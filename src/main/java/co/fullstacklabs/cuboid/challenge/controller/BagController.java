@@ -1,19 +1,36 @@
 package co.fullstacklabs.cuboid.challenge.controller;
 
 import java.util.List;
+import java.util.Locale;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import co.fullstacklabs.cuboid.challenge.bulk.BagExporter;
+import co.fullstacklabs.cuboid.challenge.bulk.ExportFormat;
 import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.BagOccupancyDTO;
+import co.fullstacklabs.cuboid.challenge.dto.BagSummaryDTO;
 import co.fullstacklabs.cuboid.challenge.dto.NewBagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.UtilizationReportDTO;
 import co.fullstacklabs.cuboid.challenge.service.BagService;
+import co.fullstacklabs.cuboid.challenge.service.UtilizationService;
 
 /**
  * @author FullStack Labs
@@ -23,13 +40,21 @@ import co.fullstacklabs.cuboid.challenge.service.BagService;
 
 @RestController
 @RequestMapping("/bags")
+@Validated
 public class BagController {
 
     private BagService service;
+    private ObjectMapper objectMapper;
+    private BagExporter exporter;
+    private UtilizationService utilizationService;
 
     @Autowired
-    public BagController(BagService service){
+    public BagController(BagService service, ObjectMapper objectMapper, BagExporter exporter,
+                         UtilizationService utilizationService){
         this.service = service;
+        this.objectMapper = objectMapper;
+        this.exporter = exporter;
+        this.utilizationService = utilizationService;
     }
 
     @PostMapping
@@ -39,8 +64,62 @@ public class BagController {
     }
 
     @GetMapping
-    public List<BagDTO> getAll() {
-        return service.getAll();
+    public List<BagDTO> getAll(@RequestParam(value = "after", required = false) @Min(0) Long after,
+                               @RequestParam(value = "limit", required = false) @Min(1) @Max(Listings.MAX_PAGE_SIZE) Integer limit) {
+        if (after == null && limit == null) {
+            return service.getAll();
+        }
+        return service.getPage(after == null ? 0L : after, limit == null ? Listings.DEFAULT_PAGE_SIZE : limit);
+    }
+
+    @GetMapping("summary")
+    public List<BagSummaryDTO> getSummaries() {
+        return service.getSummaries();
+    }
+
+    @GetMapping("occupancy")
+    public List<BagOccupancyDTO> getOccupancies() {
+        return service.getOccupancies();
+    }
+
+    @GetMapping("stream")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = Listings.jsonArray(objectMapper, service::streamAll);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = outputStream -> exporter.export(outputStream, format, gzip);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("bags." + format.getExtension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    @GetMapping("utilization")
+    public UtilizationReportDTO getUtilization(
+            @RequestParam(value = "includeBags", defaultValue = "true") boolean includeBags) {
+        return utilizationService.report(includeBags);
+    }
+
+    @PostMapping("reconcile")
+    public ResponseEntity<Void> reconcile() {
+        service.reconcilePayloads();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("{id}/occupancy")
+    public BagOccupancyDTO getOccupancy(@PathVariable("id") long bagId) {
+        return service.getOccupancy(bagId);
     }
 
     @GetMapping("{id}")
@@ -48,4 +127,46 @@ public class BagController {
         BagDTO bagDTO = service.findById(bagId);
         return new ResponseEntity<>(bagDTO, HttpStatus.OK);
     }
+
+    /**
+     * Whether an Accept-Encoding header allows gzip: a gzip coding, or else the * wildcard,
+     * listed with a quality above zero.
+     *
+     * @param acceptEncoding - Accept-Encoding header, or null
+     * @return boolean
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                gzip = quality;
+            } else if ("*".equals(coding)) {
+                wildcard = quality;
+            }
+        }
+        Double accepted = gzip != null ? gzip : wildcard;
+        return accepted != null && accepted > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
 }
@@ -0,0 +1,43 @@
+package co.fullstacklabs.cuboid.challenge.controller;
+
+import java.util.concurrent.CompletableFuture;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import co.fullstacklabs.cuboid.challenge.dto.ChangeBatchDTO;
+import co.fullstacklabs.cuboid.challenge.service.ChangeFeedService;
+
+/**
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@RestController
+@RequestMapping("/changes")
+@Validated
+public class ChangeController {
+
+    static final long MAX_WAIT_MILLIS = 20_000;
+
+    private ChangeFeedService service;
+
+    @Autowired
+    public ChangeController(ChangeFeedService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    public CompletableFuture<ChangeBatchDTO> getChanges(
+            @RequestParam(value = "since", defaultValue = "0") @Min(0) long since,
+            @RequestParam(value = "limit", required = false) @Min(1) @Max(Listings.MAX_PAGE_SIZE) Integer limit,
+            @RequestParam(value = "waitMillis", defaultValue = "0") @Min(0) @Max(MAX_WAIT_MILLIS) long waitMillis) {
+        return service.await(since, limit == null ? Listings.DEFAULT_PAGE_SIZE : limit, waitMillis);
+    }
+
+}
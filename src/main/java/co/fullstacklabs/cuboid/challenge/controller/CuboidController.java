@@ -1,13 +1,25 @@
 package co.fullstacklabs.cuboid.challenge.controller;
 
+import co.fullstacklabs.cuboid.challenge.concurrency.CapacityPrecheck;
 import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidSearchDTO;
+import co.fullstacklabs.cuboid.challenge.dto.NewCuboidDTO;
 import co.fullstacklabs.cuboid.challenge.service.CuboidService;
+import co.fullstacklabs.cuboid.challenge.service.PackingService;
+import co.fullstacklabs.cuboid.challenge.service.PackingStrategy;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import javax.validation.Valid;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 /**
@@ -22,27 +34,67 @@ import java.util.List;
 public class CuboidController {
 
     private final CuboidService service;
+    private final PackingService packingService;
+    private final ObjectMapper objectMapper;
+    private final CapacityPrecheck capacityPrecheck;
 
     @Autowired
-    public CuboidController(CuboidService service) {
+    public CuboidController(CuboidService service, PackingService packingService, ObjectMapper objectMapper,
+                            CapacityPrecheck capacityPrecheck) {
         this.service = service;
+        this.packingService = packingService;
+        this.objectMapper = objectMapper;
+        this.capacityPrecheck = capacityPrecheck;
     }
 
     @PostMapping()
     public ResponseEntity<CuboidDTO> create(@Valid @RequestBody final CuboidDTO cuboidDTO) {
+        capacityPrecheck.check(cuboidDTO);
         CuboidDTO cuboid = service.create(cuboidDTO);
         return new ResponseEntity<>(cuboid, HttpStatus.CREATED);
     }
 
+    @PostMapping("batch")
+    public ResponseEntity<List<CuboidDTO>> createAll(@Valid @Size(min = 1) @RequestBody final List<CuboidDTO> cuboidDTOs) {
+        capacityPrecheck.checkAll(cuboidDTOs);
+        List<CuboidDTO> cuboids = service.createAll(cuboidDTOs);
+        return new ResponseEntity<>(cuboids, HttpStatus.CREATED);
+    }
+
+    @PostMapping("pack")
+    public ResponseEntity<List<CuboidDTO>> pack(
+            @RequestParam(value = "strategy", defaultValue = "BEST_FIT_DECREASING") final PackingStrategy strategy,
+            @Valid @Size(min = 1) @RequestBody final List<NewCuboidDTO> cuboidDTOs) {
+        List<CuboidDTO> cuboids = packingService.pack(cuboidDTOs, strategy);
+        return new ResponseEntity<>(cuboids, HttpStatus.CREATED);
+    }
+
     @GetMapping
-    public List<CuboidDTO> getAll() {
-        List<CuboidDTO> cuboidDTOList = service.getAll();
+    public List<CuboidDTO> getAll(@RequestParam(value = "after", required = false) @Min(0) final Long after,
+                                  @RequestParam(value = "limit", required = false) @Min(1) @Max(Listings.MAX_PAGE_SIZE) final Integer limit) {
+        return after == null && limit == null
+                ? service.getAll()
+                : service.getPage(after == null ? 0L : after, limit == null ? Listings.DEFAULT_PAGE_SIZE : limit);
+    }
 
-        if (!cuboidDTOList.isEmpty()) {
-            cuboidDTOList.forEach(cuboidDTO -> cuboidDTO.setVolume(calculateVolume(cuboidDTO)));
-        }
+    @GetMapping("search")
+    public List<CuboidDTO> search(@Valid final CuboidSearchDTO criteria) {
+        return service.search(criteria);
+    }
+
+    @GetMapping("fitting")
+    public List<CuboidDTO> findFitting(@RequestParam("width") @DecimalMin(value = "0", inclusive = false) final float width,
+                                       @RequestParam("height") @DecimalMin(value = "0", inclusive = false) final float height,
+                                       @RequestParam("depth") @DecimalMin(value = "0", inclusive = false) final float depth,
+                                       @RequestParam(value = "limit", defaultValue = "" + Listings.DEFAULT_PAGE_SIZE)
+                                       @Min(1) @Max(Listings.MAX_PAGE_SIZE) final int limit) {
+        return service.findFitting(width, height, depth, limit);
+    }
 
-        return cuboidDTOList;
+    @GetMapping("stream")
+    public ResponseEntity<StreamingResponseBody> stream() {
+        StreamingResponseBody body = Listings.jsonArray(objectMapper, service::streamAll);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @PutMapping("{id}")
@@ -57,8 +109,4 @@ public class CuboidController {
         return new ResponseEntity("Object Cuboid not found!", HttpStatus.NO_CONTENT);
     }
 
-    private Double calculateVolume(CuboidDTO cuboidDTO) {
-        return (double) (cuboidDTO.getWidth() * cuboidDTO.getHeight() * cuboidDTO.getDepth());
-    }
-
 }
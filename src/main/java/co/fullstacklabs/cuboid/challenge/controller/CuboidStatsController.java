@@ -0,0 +1,61 @@
+package co.fullstacklabs.cuboid.challenge.controller;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagVolumeDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.VolumeBucketDTO;
+import co.fullstacklabs.cuboid.challenge.service.CuboidStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.util.List;
+
+/**
+ * Cuboid aggregates served from the column store, enabled with cuboid.column-store.enabled
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@RestController
+@RequestMapping("/cuboids/stats")
+@Validated
+@ConditionalOnProperty(name = "cuboid.column-store.enabled", havingValue = "true")
+public class CuboidStatsController {
+
+    static final int DEFAULT_BUCKETS = 10;
+    static final int MAX_BUCKETS = 1000;
+
+    private final CuboidStatsService service;
+
+    @Autowired
+    public CuboidStatsController(CuboidStatsService service) {
+        this.service = service;
+    }
+
+    @GetMapping("volume-by-bag")
+    public List<BagVolumeDTO> volumeByBag() {
+        return service.volumeByBag();
+    }
+
+    @GetMapping("volume-histogram")
+    public List<VolumeBucketDTO> volumeHistogram(@RequestParam(value = "buckets", defaultValue = "" + DEFAULT_BUCKETS)
+                                                 @Min(1) @Max(MAX_BUCKETS) final int buckets,
+                                                 @RequestParam(value = "bagId", required = false) final Long bagId) {
+        return service.volumeHistogram(buckets, bagId);
+    }
+
+    @GetMapping("largest")
+    public List<CuboidDTO> largest(@RequestParam(value = "limit", defaultValue = "" + Listings.DEFAULT_PAGE_SIZE)
+                                   @Min(1) @Max(Listings.MAX_PAGE_SIZE) final int limit,
+                                   @RequestParam(value = "bagId", required = false) final Long bagId) {
+        return service.largest(limit, bagId);
+    }
+
+}
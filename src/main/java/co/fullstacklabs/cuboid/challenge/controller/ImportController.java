@@ -0,0 +1,46 @@
+package co.fullstacklabs.cuboid.challenge.controller;
+
+import co.fullstacklabs.cuboid.challenge.bulk.BulkImporter;
+import co.fullstacklabs.cuboid.challenge.bulk.ImportFormat;
+import co.fullstacklabs.cuboid.challenge.dto.ImportReportDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+
+/**
+ * Bulk import of bags and cuboids. The request body is streamed straight into the
+ * import pipeline, so files of any size can be posted.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@RestController
+@RequestMapping("/import")
+public class ImportController {
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final BulkImporter importer;
+
+    @Autowired
+    public ImportController(BulkImporter importer) {
+        this.importer = importer;
+    }
+
+    @PostMapping(consumes = TEXT_CSV_VALUE)
+    public ImportReportDTO importCsv(HttpServletRequest request) throws IOException {
+        return importer.importFrom(request.getInputStream(), ImportFormat.CSV);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ImportReportDTO importNdjson(HttpServletRequest request) throws IOException {
+        return importer.importFrom(request.getInputStream(), ImportFormat.NDJSON);
+    }
+
+}
@@ -0,0 +1,52 @@
+package co.fullstacklabs.cuboid.challenge.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Shared pieces of the list endpoints: page size limits for keyset pagination and
+ * a response body that writes a JSON array element by element.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+final class Listings {
+
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private Listings() {
+    }
+
+    /**
+     * Builds a body that writes every element handed over by the source as part of one JSON
+     * array, flushing through Jackson's buffer instead of building the whole list first.
+     *
+     * @param objectMapper - Mapper used to serialize each element
+     * @param source - Receives a consumer and feeds it every element
+     * @return StreamingResponseBody
+     */
+    static <T> StreamingResponseBody jsonArray(ObjectMapper objectMapper, Consumer<Consumer<T>> source) {
+        return outputStream -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            try (generator) {
+                generator.writeStartArray();
+                source.accept(element -> {
+                    try {
+                        generator.writeObject(element);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,52 @@
+package co.fullstacklabs.cuboid.challenge.controller;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.service.ReactiveCuboidService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import javax.validation.Valid;
+
+/**
+ * Cuboid endpoints served from the reactive service. Requests accepting NDJSON are
+ * answered one cuboid per line, each written as the database produces it and only
+ * once the client has taken the previous one. A create accepting NDJSON is written
+ * over R2DBC and answered with the created cuboid as a single line.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@RestController
+@RequestMapping("/cuboids")
+@ConditionalOnProperty(name = "cuboid.reactive.enabled", havingValue = "true")
+public class ReactiveCuboidController {
+
+    private final ReactiveCuboidService service;
+
+    @Autowired
+    public ReactiveCuboidController(ReactiveCuboidService service) {
+        this.service = service;
+    }
+
+    @PostMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Flux<CuboidDTO> create(@Valid @RequestBody final CuboidDTO cuboidDTO) {
+        return service.create(cuboidDTO).flux();
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CuboidDTO> getAll() {
+        return service.getAll();
+    }
+
+}
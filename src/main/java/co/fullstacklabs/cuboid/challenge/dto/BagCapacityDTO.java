@@ -0,0 +1,26 @@
+package co.fullstacklabs.cuboid.challenge.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BagCapacityDTO {
+
+    private Long id;
+    private Double volume;
+    private Double payloadVolume;
+
+    public BagCapacityDTO(Long id, Double volume, Double payloadVolume) {
+        this.id = id;
+        this.volume = volume;
+        this.payloadVolume = payloadVolume;
+    }
+
+    public double getAvailableVolume() {
+        return volume - payloadVolume;
+    }
+
+}
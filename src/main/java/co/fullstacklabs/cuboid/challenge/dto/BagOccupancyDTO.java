@@ -0,0 +1,18 @@
+package co.fullstacklabs.cuboid.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BagOccupancyDTO {
+
+    private Long bagId;
+    private Long cuboidCount;
+    private Double payloadVolume;
+
+}
@@ -0,0 +1,28 @@
+package co.fullstacklabs.cuboid.challenge.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class BagSummaryDTO {
+
+    private Long id;
+    private String title;
+    private Double volume;
+    private Double payloadVolume;
+    private Double availableVolume;
+    private Long cuboidCount;
+
+    public BagSummaryDTO(Long id, String title, Double volume, Double payloadVolume, Long cuboidCount) {
+        this.id = id;
+        this.title = title;
+        this.volume = volume;
+        this.payloadVolume = payloadVolume;
+        this.availableVolume = volume - payloadVolume;
+        this.cuboidCount = cuboidCount;
+    }
+
+}
@@ -0,0 +1,21 @@
+package co.fullstacklabs.cuboid.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BagUtilizationDTO {
+
+    private Long bagId;
+    private String title;
+    private Double volume;
+    private Long cuboidCount;
+    private Double payloadVolume;
+    private Double fillRatio;
+
+}
@@ -0,0 +1,18 @@
+package co.fullstacklabs.cuboid.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeBatchDTO {
+
+    private List<ChangeDTO> changes;
+    private Long next;
+
+}
@@ -0,0 +1,23 @@
+package co.fullstacklabs.cuboid.challenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeDTO {
+
+    private Long position;
+    private String type;
+    private Instant createdAt;
+
+    @JsonRawValue
+    private String payload;
+
+}
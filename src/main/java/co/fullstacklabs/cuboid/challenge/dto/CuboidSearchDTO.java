@@ -0,0 +1,79 @@
+package co.fullstacklabs.cuboid.challenge.dto;
+
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import org.springframework.data.domain.Sort;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Filters for the cuboid search. Every range bound is optional and inclusive;
+ * results are sorted by the given field, then by ID, and cut at the limit.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CuboidSearchDTO {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    /** Sortable cuboid fields, each naming the entity attribute it orders by. */
+    public enum SortField {
+        ID("id"), VOLUME("volume"), WIDTH("width"), HEIGHT("height"), DEPTH("depth");
+
+        private final String attribute;
+
+        SortField(String attribute) {
+            this.attribute = attribute;
+        }
+
+        public String getAttribute() {
+            return attribute;
+        }
+    }
+
+    private Long bagId;
+
+    @DecimalMin(value = "0", message = "Minimum volume can't be negative.")
+    private Double minVolume;
+    private Double maxVolume;
+
+    @DecimalMin(value = "0", message = "Minimum width can't be negative.")
+    private Float minWidth;
+    private Float maxWidth;
+
+    @DecimalMin(value = "0", message = "Minimum height can't be negative.")
+    private Float minHeight;
+    private Float maxHeight;
+
+    @DecimalMin(value = "0", message = "Minimum depth can't be negative.")
+    private Float minDepth;
+    private Float maxDepth;
+
+    @NotNull(message = "Sort field can't be null.")
+    @Builder.Default
+    private SortField sort = SortField.VOLUME;
+
+    @NotNull(message = "Sort direction can't be null.")
+    @Builder.Default
+    private Sort.Direction direction = Sort.Direction.ASC;
+
+    @NotNull(message = "Limit can't be null.")
+    @Min(value = 1, message = "Limit must be at least 1.")
+    @Max(value = MAX_LIMIT, message = "Limit can't be greater than " + MAX_LIMIT + ".")
+    @Builder.Default
+    private Integer limit = DEFAULT_LIMIT;
+
+}
@@ -0,0 +1,27 @@
+package co.fullstacklabs.cuboid.challenge.dto;
+
+import co.fullstacklabs.cuboid.challenge.exception.ErrorDetails;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many rows were written or rejected, and why rows were
+ * rejected, with the line number as details. Only the first errors are listed.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+
+    private long bagsImported;
+    private long cuboidsImported;
+    private long rowsRejected;
+    private List<ErrorDetails> errors;
+
+}
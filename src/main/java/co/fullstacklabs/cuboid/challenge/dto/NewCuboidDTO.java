@@ -0,0 +1,26 @@
+package co.fullstacklabs.cuboid.challenge.dto;
+
+import javax.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NewCuboidDTO {
+
+    @NotNull(message = "Cuboid width can't be null.")
+    private Float width;
+
+    @NotNull(message = "Cuboid height can't be null.")
+    private Float height;
+
+    @NotNull(message = "Cuboid depth can't be null.")
+    private Float depth;
+
+}
@@ -0,0 +1,27 @@
+package co.fullstacklabs.cuboid.challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationReportDTO {
+
+    private Long bagCount;
+    private Long cuboidCount;
+    private Double totalVolume;
+    private Double totalPayloadVolume;
+    private Double fillRatio;
+    private Map<String, Double> fillRatioPercentiles;
+    private List<BagUtilizationDTO> overfilledBags;
+    private List<BagUtilizationDTO> bags;
+
+}
@@ -0,0 +1,23 @@
+package co.fullstacklabs.cuboid.challenge.event;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a bag is created.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BagCreated {
+
+    private final BagDTO bag;
+
+}
@@ -0,0 +1,22 @@
+package co.fullstacklabs.cuboid.challenge.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when the stored payload of every bag is recomputed from its cuboids.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BagsReconciled {
+
+    private final int updatedBags;
+
+}
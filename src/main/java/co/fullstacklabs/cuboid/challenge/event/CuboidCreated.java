@@ -0,0 +1,25 @@
+package co.fullstacklabs.cuboid.challenge.event;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import java.util.List;
+
+/**
+ * Published when cuboids are created. Cuboids created by the same write, such as a batch
+ * or an import chunk, travel in one event.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class CuboidCreated {
+
+    private final List<CuboidDTO> cuboids;
+
+}
@@ -0,0 +1,26 @@
+package co.fullstacklabs.cuboid.challenge.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a cuboid moves to another bag, possibly changing volume on the way.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class CuboidMoved {
+
+    private final long cuboidId;
+    private final long fromBagId;
+    private final long toBagId;
+    private final double previousVolume;
+    private final double volume;
+
+}
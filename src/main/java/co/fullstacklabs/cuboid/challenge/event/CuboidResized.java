@@ -0,0 +1,25 @@
+package co.fullstacklabs.cuboid.challenge.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when a cuboid changes volume without leaving its bag.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class CuboidResized {
+
+    private final long cuboidId;
+    private final long bagId;
+    private final double previousVolume;
+    private final double volume;
+
+}
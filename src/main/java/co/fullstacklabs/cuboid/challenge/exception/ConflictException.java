@@ -0,0 +1,16 @@
+package co.fullstacklabs.cuboid.challenge.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@ResponseStatus(value = HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,30 +1,49 @@
 package co.fullstacklabs.cuboid.challenge.exception;
 
+import org.springframework.boot.web.servlet.error.ErrorAttributes;
 import org.springframework.http.HttpStatus;
+import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.WebRequest;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     @ExceptionHandler(value = {ResourceNotFoundException.class})
     @ResponseStatus(value = HttpStatus.NOT_FOUND)
     public ErrorDetails resourceNotFoundException(ResourceNotFoundException ex, WebRequest request) {
+        exposeToMetrics(ex, request);
         return new ErrorDetails(ex.getMessage(), request.getDescription(false));
     }
 
     @ExceptionHandler(value = {UnprocessableEntityException.class})
     @ResponseStatus(value = HttpStatus.UNPROCESSABLE_ENTITY)
     public ErrorDetails unprocessedEntityException(UnprocessableEntityException ex, WebRequest request) {
+        exposeToMetrics(ex, request);
         return new ErrorDetails(ex.getMessage(), request.getDescription(false));
     }
 
+    @ExceptionHandler(value = {ConflictException.class})
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    public ErrorDetails conflictException(ConflictException ex, WebRequest request) {
+        exposeToMetrics(ex, request);
+        return new ErrorDetails(ex.getMessage(), request.getDescription(false));
+    }
+
+    @ExceptionHandler(value = {RejectedExecutionException.class})
+    @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorDetails rejectedExecutionException(RejectedExecutionException ex, WebRequest request) {
+        exposeToMetrics(ex, request);
+        return new ErrorDetails("Server is busy, please try again!", request.getDescription(false));
+    }
+
     @ExceptionHandler(value = {ConstraintViolationException.class})
     @ResponseStatus(value = HttpStatus.BAD_REQUEST)
     public ValidationError constraintViolationException(ConstraintViolationException ex) {
@@ -35,13 +54,25 @@ public class GlobalExceptionHandler {
         return errors;
     }
 
-    @ExceptionHandler(value = {MethodArgumentNotValidException.class})
+    /**
+     * Covers invalid request bodies (MethodArgumentNotValidException) as well as invalid
+     * query parameters bound to an object.
+     */
+    @ExceptionHandler(value = {BindException.class})
     @ResponseStatus(value = HttpStatus.BAD_REQUEST)
-    public ValidationError constraintViolationException(MethodArgumentNotValidException ex) {
+    public ValidationError constraintViolationException(BindException ex) {
         ValidationError errors = new ValidationError();
         for (FieldError violation : ex.getBindingResult().getFieldErrors()) {
             errors.addViolations(new ErrorDetails(violation.getDefaultMessage(), violation.getField()));
         }
         return errors;
     }
+
+    /**
+     * Handled exceptions never reach the servlet container, so the request metrics would tag
+     * them as "None". Exposing the exception as the error attribute puts it on http.server.requests.
+     */
+    private static void exposeToMetrics(Exception ex, WebRequest request) {
+        request.setAttribute(ErrorAttributes.ERROR_ATTRIBUTE, ex, RequestAttributes.SCOPE_REQUEST);
+    }
 }
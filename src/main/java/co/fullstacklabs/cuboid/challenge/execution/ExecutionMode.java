@@ -0,0 +1,21 @@
+package co.fullstacklabs.cuboid.challenge.execution;
+
+/**
+ * Where controller handlers run, selected with cuboid.execution.mode.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public enum ExecutionMode {
+
+    /** Handlers run on the Tomcat worker that received the request. */
+    THREAD_PER_REQUEST,
+
+    /** Handlers run on a bounded pool sized to the JDBC connection pool. */
+    ASYNC,
+
+    /** Handlers run on virtual threads, at most as many at once as there are JDBC connections. */
+    VIRTUAL
+
+}
@@ -0,0 +1,82 @@
+package co.fullstacklabs.cuboid.challenge.execution;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * Handler adapter that runs the application controllers on the given executor. Arguments are
+ * still resolved and validated on the servlet thread; the handler itself returns a future, so
+ * Spring MVC starts async processing and releases the servlet thread until the handler completes.
+ * Handlers that already stream their response asynchronously, return a future, or return
+ * a reactive publisher, are left as they are.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public class OffloadingHandlerAdapter extends RequestMappingHandlerAdapter {
+
+    private final Executor executor;
+    private final String controllerPackage;
+
+    public OffloadingHandlerAdapter(Executor executor, String controllerPackage) {
+        super();
+        this.executor = executor;
+        this.controllerPackage = controllerPackage;
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        if (!offloads(handlerMethod)) {
+            return super.createInvocableHandlerMethod(handlerMethod);
+        }
+        return new OffloadedHandlerMethod(handlerMethod, executor);
+    }
+
+    private boolean offloads(HandlerMethod handlerMethod) {
+        if (!handlerMethod.getBeanType().getPackageName().equals(controllerPackage)) {
+            return false;
+        }
+        ResolvableType returnType = ResolvableType.forMethodReturnType(handlerMethod.getMethod());
+        if (ResponseEntity.class.equals(returnType.resolve())) {
+            returnType = returnType.getGeneric(0);
+        }
+        Class<?> returnClass = returnType.toClass();
+        return !StreamingResponseBody.class.equals(returnClass) && !Publisher.class.isAssignableFrom(returnClass)
+                && !CompletionStage.class.isAssignableFrom(returnClass);
+    }
+
+    private static final class OffloadedHandlerMethod extends ServletInvocableHandlerMethod {
+
+        private final Executor executor;
+
+        OffloadedHandlerMethod(HandlerMethod handlerMethod, Executor executor) {
+            super(handlerMethod);
+            this.executor = executor;
+        }
+
+        @Override
+        protected Object doInvoke(Object... args) {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return super.doInvoke(args);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        }
+
+    }
+
+}
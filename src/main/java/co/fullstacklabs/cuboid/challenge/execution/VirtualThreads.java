@@ -0,0 +1,39 @@
+package co.fullstacklabs.cuboid.challenge.execution;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Looks up the virtual thread executor reflectively, so the application still builds
+ * and runs on runtimes that do not have virtual threads.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * An executor starting a virtual thread per task, if the runtime supports them.
+     *
+     * @return Optional<ExecutorService>
+     */
+    public static Optional<ExecutorService> newPerTaskExecutor() {
+        try {
+            return Optional.of((ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                    .invoke());
+        } catch (NoSuchMethodException | IllegalAccessException | UnsupportedOperationException e) {
+            return Optional.empty();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create the virtual thread executor", e);
+        }
+    }
+
+}
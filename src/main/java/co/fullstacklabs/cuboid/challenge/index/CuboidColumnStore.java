@@ -0,0 +1,451 @@
+package co.fullstacklabs.cuboid.challenge.index;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagVolumeDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.VolumeBucketDTO;
+import co.fullstacklabs.cuboid.challenge.repository.CuboidRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Every cuboid's id, dimensions and bag held in parallel primitive arrays, for aggregates
+ * that scan all cuboids without boxing or building a DTO per row.
+ *
+ * Loaded once the application is up and kept in step with every write
+ * after it commits. Removing a cuboid moves the last one into its slot, so the arrays stay
+ * dense. Scans share a read lock; writes take the write lock. Enabled with
+ * cuboid.column-store.enabled.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+@ConditionalOnProperty(name = "cuboid.column-store.enabled", havingValue = "true")
+public class CuboidColumnStore implements CuboidIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CuboidColumnStore.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final CuboidRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Lock readLock;
+    private final Lock writeLock;
+
+    private Columns columns = new Columns(INITIAL_CAPACITY);
+    private List<Consumer<Columns>> writesWhileLoading;
+
+    @Autowired
+    public CuboidColumnStore(CuboidRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        ReadWriteLock lock = new ReentrantReadWriteLock();
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
+    }
+
+    /**
+     * Reloads every cuboid from the database.
+     */
+    @Override
+    public void rebuild() {
+        load(repository::streamAllForIndex);
+    }
+
+    /**
+     * Fills new columns with the given cuboids. Writes made while they are read are applied
+     * to the current columns and replayed on the new ones, so none is lost.
+     */
+    @Override
+    public void load(Supplier<Stream<CuboidDTO>> source) {
+        write(() -> writesWhileLoading = new ArrayList<>());
+
+        Columns loaded = new Columns(INITIAL_CAPACITY);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<CuboidDTO> cuboids = source.get()) {
+                    cuboids.forEach(cuboid -> loaded.put(cuboid.getId(), cuboid.getWidth(), cuboid.getHeight(),
+                            cuboid.getDepth(), cuboid.getBagId()));
+                }
+            });
+        } catch (RuntimeException e) {
+            write(() -> writesWhileLoading = null);
+            throw e;
+        }
+
+        write(() -> {
+            writesWhileLoading.forEach(write -> write.accept(loaded));
+            writesWhileLoading = null;
+            columns = loaded;
+        });
+        LOGGER.info("Cuboid column store loaded with {} cuboids", loaded.size);
+    }
+
+    @Override
+    public void put(CuboidDTO cuboid) {
+        long id = cuboid.getId();
+        float width = cuboid.getWidth();
+        float height = cuboid.getHeight();
+        float depth = cuboid.getDepth();
+        long bagId = cuboid.getBagId();
+        AfterCommit.run(() -> apply(current -> current.put(id, width, height, depth, bagId)));
+    }
+
+    @Override
+    public void putAll(List<CuboidDTO> cuboids) {
+        List<CuboidDTO> copy = List.copyOf(cuboids);
+        AfterCommit.run(() -> apply(current -> copy.forEach(cuboid -> current.put(cuboid.getId(),
+                cuboid.getWidth(), cuboid.getHeight(), cuboid.getDepth(), cuboid.getBagId()))));
+    }
+
+    @Override
+    public void remove(long cuboidId) {
+        AfterCommit.run(() -> apply(current -> current.remove(cuboidId)));
+    }
+
+    /**
+     * Number of cuboids and their total volume in each bag that holds any.
+     *
+     * @return List<BagVolumeDTO> ordered by bag ID
+     */
+    public List<BagVolumeDTO> volumeByBag() {
+        readLock.lock();
+        try {
+            Columns current = columns;
+            LongIntMap groups = new LongIntMap(INITIAL_CAPACITY);
+            long[] bagIds = new long[INITIAL_CAPACITY];
+            long[] counts = new long[INITIAL_CAPACITY];
+            double[] volumes = new double[INITIAL_CAPACITY];
+            for (int slot = 0; slot < current.size; slot++) {
+                long bagId = current.bagIds[slot];
+                int group = groups.get(bagId);
+                if (group == LongIntMap.MISSING) {
+                    group = groups.size();
+                    groups.put(bagId, group);
+                    if (group == bagIds.length) {
+                        bagIds = Arrays.copyOf(bagIds, group * 2);
+                        counts = Arrays.copyOf(counts, group * 2);
+                        volumes = Arrays.copyOf(volumes, group * 2);
+                    }
+                    bagIds[group] = bagId;
+                }
+                counts[group]++;
+                volumes[group] += current.volume(slot);
+            }
+
+            int[] order = sortedBy(bagIds, groups.size());
+            List<BagVolumeDTO> result = new ArrayList<>(order.length);
+            for (int group : order) {
+                result.add(new BagVolumeDTO(bagIds[group], counts[group], volumes[group]));
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Splits the range of cuboid volumes into equally wide buckets and counts the cuboids in each.
+     *
+     * @param buckets - Number of buckets
+     * @param bagId - Only count the cuboids of this bag, or all when null
+     * @return List<VolumeBucketDTO> from the smallest volumes to the largest, empty when there are no cuboids
+     */
+    public List<VolumeBucketDTO> volumeHistogram(int buckets, Long bagId) {
+        readLock.lock();
+        try {
+            Columns current = columns;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int slot = 0; slot < current.size; slot++) {
+                if (bagId == null || current.bagIds[slot] == bagId) {
+                    double volume = current.volume(slot);
+                    min = Math.min(min, volume);
+                    max = Math.max(max, volume);
+                }
+            }
+            if (min > max) {
+                return List.of();
+            }
+
+            double width = (max - min) / buckets;
+            long[] counts = new long[buckets];
+            for (int slot = 0; slot < current.size; slot++) {
+                if (bagId == null || current.bagIds[slot] == bagId) {
+                    int bucket = width == 0 ? 0 : (int) ((current.volume(slot) - min) / width);
+                    counts[Math.min(bucket, buckets - 1)]++;
+                }
+            }
+
+            List<VolumeBucketDTO> result = new ArrayList<>(buckets);
+            for (int bucket = 0; bucket < buckets; bucket++) {
+                double to = bucket == buckets - 1 ? max : min + width * (bucket + 1);
+                result.add(new VolumeBucketDTO(min + width * bucket, to, counts[bucket]));
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Finds the cuboids with the largest volumes, keeping only the best candidates in a
+     * bounded heap while scanning.
+     *
+     * @param limit - Maximum number of cuboids returned
+     * @param bagId - Only consider the cuboids of this bag, or all when null
+     * @return List<CuboidDTO> from the largest volume down, ties by ID
+     */
+    public List<CuboidDTO> largest(int limit, Long bagId) {
+        readLock.lock();
+        try {
+            Columns current = columns;
+            SlotHeap heap = new SlotHeap(current, Math.min(limit, current.size));
+            for (int slot = 0; slot < current.size; slot++) {
+                if (bagId == null || current.bagIds[slot] == bagId) {
+                    heap.offer(slot);
+                }
+            }
+
+            int[] slots = heap.drainLargestFirst();
+            List<CuboidDTO> result = new ArrayList<>(slots.length);
+            for (int slot : slots) {
+                result.add(current.toDTO(slot));
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * @return number of cuboids held
+     */
+    public int size() {
+        readLock.lock();
+        try {
+            return columns.size;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private void apply(Consumer<Columns> write) {
+        write(() -> {
+            write.accept(columns);
+            if (writesWhileLoading != null) {
+                writesWhileLoading.add(write);
+            }
+        });
+    }
+
+    private void write(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** Indexes 0..count-1 ordered by the values they point at. */
+    private static int[] sortedBy(long[] values, int count) {
+        long[][] pairs = new long[count][];
+        for (int i = 0; i < count; i++) {
+            pairs[i] = new long[] {values[i], i};
+        }
+        Arrays.sort(pairs, (a, b) -> Long.compare(a[0], b[0]));
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) pairs[i][1];
+        }
+        return order;
+    }
+
+    /** The parallel arrays, a slot per cuboid, plus where each cuboid ID sits. */
+    private static final class Columns {
+
+        private long[] ids;
+        private float[] widths;
+        private float[] heights;
+        private float[] depths;
+        private long[] bagIds;
+        private int size;
+        private final LongIntMap slots;
+
+        private Columns(int capacity) {
+            ids = new long[capacity];
+            widths = new float[capacity];
+            heights = new float[capacity];
+            depths = new float[capacity];
+            bagIds = new long[capacity];
+            slots = new LongIntMap(capacity);
+        }
+
+        private void put(long id, float width, float height, float depth, long bagId) {
+            int slot = slots.get(id);
+            if (slot == LongIntMap.MISSING) {
+                if (size == ids.length) {
+                    grow();
+                }
+                slot = size++;
+                ids[slot] = id;
+                slots.put(id, slot);
+            }
+            widths[slot] = width;
+            heights[slot] = height;
+            depths[slot] = depth;
+            bagIds[slot] = bagId;
+        }
+
+        private void remove(long id) {
+            int slot = slots.remove(id);
+            if (slot == LongIntMap.MISSING) {
+                return;
+            }
+            int last = --size;
+            if (slot != last) {
+                ids[slot] = ids[last];
+                widths[slot] = widths[last];
+                heights[slot] = heights[last];
+                depths[slot] = depths[last];
+                bagIds[slot] = bagIds[last];
+                slots.put(ids[slot], slot);
+            }
+        }
+
+        private double volume(int slot) {
+            return (double) widths[slot] * heights[slot] * depths[slot];
+        }
+
+        private CuboidDTO toDTO(int slot) {
+            return CuboidDTO.builder()
+                    .id(ids[slot])
+                    .width(widths[slot])
+                    .height(heights[slot])
+                    .depth(depths[slot])
+                    .volume(volume(slot))
+                    .bagId(bagIds[slot])
+                    .build();
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            widths = Arrays.copyOf(widths, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            depths = Arrays.copyOf(depths, capacity);
+            bagIds = Arrays.copyOf(bagIds, capacity);
+        }
+
+    }
+
+    /**
+     * Bounded min-heap of slots keyed by volume then by reverse ID, so its root is always the
+     * weakest candidate kept.
+     */
+    private static final class SlotHeap {
+
+        private final Columns columns;
+        private final int[] slots;
+        private final double[] volumes;
+        private int size;
+
+        private SlotHeap(Columns columns, int capacity) {
+            this.columns = columns;
+            this.slots = new int[capacity];
+            this.volumes = new double[capacity];
+        }
+
+        private void offer(int slot) {
+            if (slots.length == 0) {
+                return;
+            }
+            double volume = columns.volume(slot);
+            if (size < slots.length) {
+                slots[size] = slot;
+                volumes[size] = volume;
+                siftUp(size++);
+            } else if (weaker(0, volume, slot)) {
+                slots[0] = slot;
+                volumes[0] = volume;
+                siftDown(0);
+            }
+        }
+
+        private int[] drainLargestFirst() {
+            int[] result = new int[size];
+            for (int i = size - 1; i >= 0; i--) {
+                result[i] = slots[0];
+                size--;
+                if (size > 0) {
+                    swap(0, size);
+                    siftDown(0);
+                }
+            }
+            return result;
+        }
+
+        /** Whether the entry at i ranks below a cuboid with the given volume and slot. */
+        private boolean weaker(int i, double volume, int slot) {
+            int order = Double.compare(volumes[i], volume);
+            return order < 0 || order == 0 && columns.ids[slots[i]] > columns.ids[slot];
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (!weaker(i, volumes[parent], slots[parent])) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    return;
+                }
+                if (child + 1 < size && weaker(child + 1, volumes[child], slots[child])) {
+                    child++;
+                }
+                if (!weaker(child, volumes[i], slots[i])) {
+                    return;
+                }
+                swap(i, child);
+                i = child;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int slot = slots[a];
+            slots[a] = slots[b];
+            slots[b] = slot;
+            double volume = volumes[a];
+            volumes[a] = volumes[b];
+            volumes[b] = volume;
+        }
+
+    }
+
+}
@@ -0,0 +1,228 @@
+package co.fullstacklabs.cuboid.challenge.index;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.repository.CuboidRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index answering which cuboids fit within given bounds, rotation allowed.
+ *
+ * Cuboids loaded at startup sit in an immutable k-d tree. Later writes go to a small
+ * overlay on top of it: new or changed cuboids are kept aside and scanned linearly, while
+ * removed or changed ones are masked out of the tree. Once the overlay grows past a fraction
+ * of the tree both are merged into a new tree. Lookups never lock; writes are applied after
+ * the transaction that made them commits and are serialized among themselves.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+public class CuboidFitIndex implements CuboidIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CuboidFitIndex.class);
+
+    private static final int MIN_COMPACTION_SIZE = 1024;
+    private static final int COMPACTION_RATIO = 8;
+    private static final Comparator<KdTree.Entry> BY_ID = Comparator.comparingLong(entry -> entry.id);
+
+    private final CuboidRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile State state = new State(KdTree.build(new KdTree.Entry[0]));
+    private List<Runnable> writesWhileLoading;
+
+    @Autowired
+    public CuboidFitIndex(CuboidRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Reloads every cuboid from the database into a new tree.
+     */
+    @Override
+    public void rebuild() {
+        load(repository::streamAllForIndex);
+    }
+
+    /**
+     * Builds a new tree from the given cuboids. Writes made while they are read are applied
+     * to the current index and replayed on the new one, so none is lost.
+     */
+    @Override
+    public void load(Supplier<Stream<CuboidDTO>> source) {
+        synchronized (this) {
+            writesWhileLoading = new ArrayList<>();
+        }
+
+        List<KdTree.Entry> entries = new ArrayList<>();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<CuboidDTO> cuboids = source.get()) {
+                    cuboids.forEach(cuboid -> entries.add(toEntry(cuboid)));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                writesWhileLoading = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            state = new State(KdTree.build(entries.toArray(new KdTree.Entry[0])));
+            writesWhileLoading.forEach(Runnable::run);
+            writesWhileLoading = null;
+        }
+        LOGGER.info("Cuboid fit index built with {} cuboids", entries.size());
+    }
+
+    @Override
+    public void put(CuboidDTO cuboid) {
+        KdTree.Entry entry = toEntry(cuboid);
+        AfterCommit.run(() -> apply(() -> state.replace(entry)));
+    }
+
+    @Override
+    public void putAll(List<CuboidDTO> cuboids) {
+        List<KdTree.Entry> entries = cuboids.stream().map(CuboidFitIndex::toEntry).collect(Collectors.toList());
+        AfterCommit.run(() -> apply(() -> entries.forEach(entry -> state.replace(entry))));
+    }
+
+    @Override
+    public void remove(long cuboidId) {
+        AfterCommit.run(() -> apply(() -> state.remove(cuboidId)));
+    }
+
+    /**
+     * Finds the cuboids with the lowest IDs among those that fit within the given bounds in
+     * some orientation. Every fitting cuboid is visited, keeping the lowest limit IDs in a
+     * bounded max-heap, so results can be paged by ID.
+     *
+     * @param width - Bound width
+     * @param height - Bound height
+     * @param depth - Bound depth
+     * @param limit - Maximum number of cuboids returned
+     * @return List<CuboidDTO> ordered by ID
+     */
+    public List<CuboidDTO> findFitting(float width, float height, float depth, int limit) {
+        State current = state;
+        float[] bounds = KdTree.Entry.sort(width, height, depth);
+        PriorityQueue<KdTree.Entry> lowest = new PriorityQueue<>(BY_ID.reversed());
+        Consumer<KdTree.Entry> keepLowest = entry -> {
+            if (lowest.size() < limit) {
+                lowest.add(entry);
+            } else if (!lowest.isEmpty() && entry.id < lowest.peek().id) {
+                lowest.poll();
+                lowest.add(entry);
+            }
+        };
+
+        current.tree.forEachFitting(bounds, entry -> {
+            if (current.isLive(entry.id)) {
+                keepLowest.accept(entry);
+            }
+        });
+        for (KdTree.Entry entry : current.added.values()) {
+            if (entry.fitsWithin(bounds)) {
+                keepLowest.accept(entry);
+            }
+        }
+
+        return lowest.stream()
+                .sorted(BY_ID)
+                .map(CuboidFitIndex::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    private synchronized void apply(Runnable write) {
+        write.run();
+        if (writesWhileLoading != null) {
+            writesWhileLoading.add(write);
+        } else if (state.overlaySize() > Math.max(MIN_COMPACTION_SIZE, state.tree.size() / COMPACTION_RATIO)) {
+            state = state.compact();
+        }
+    }
+
+    private static KdTree.Entry toEntry(CuboidDTO cuboid) {
+        return new KdTree.Entry(cuboid.getId(), cuboid.getWidth(), cuboid.getHeight(), cuboid.getDepth(),
+                cuboid.getBagId());
+    }
+
+    private static CuboidDTO toDTO(KdTree.Entry entry) {
+        return CuboidDTO.builder()
+                .id(entry.id)
+                .width(entry.width)
+                .height(entry.height)
+                .depth(entry.depth)
+                .volume((double) entry.width * entry.height * entry.depth)
+                .bagId(entry.bagId)
+                .build();
+    }
+
+    /**
+     * A tree plus the writes made since it was built. A tree entry is hidden while the
+     * overlay holds a newer copy of it or it was removed; writes publish the new copy before
+     * hiding the old one, so a lookup in between sees one of the two.
+     */
+    private static final class State {
+
+        private final KdTree tree;
+        private final Map<Long, KdTree.Entry> added = new ConcurrentHashMap<>();
+        private final Set<Long> removed = ConcurrentHashMap.newKeySet();
+
+        private State(KdTree tree) {
+            this.tree = tree;
+        }
+
+        private boolean isLive(long id) {
+            return !added.containsKey(id) && !removed.contains(id);
+        }
+
+        private void replace(KdTree.Entry entry) {
+            added.put(entry.id, entry);
+            removed.add(entry.id);
+        }
+
+        private void remove(long id) {
+            removed.add(id);
+            added.remove(id);
+        }
+
+        private int overlaySize() {
+            return added.size() + removed.size();
+        }
+
+        private State compact() {
+            List<KdTree.Entry> entries = new ArrayList<>(tree.size() + added.size());
+            tree.forEach(entry -> {
+                if (isLive(entry.id)) {
+                    entries.add(entry);
+                }
+            });
+            entries.addAll(added.values());
+            return new State(KdTree.build(entries.toArray(new KdTree.Entry[0])));
+        }
+
+    }
+
+}
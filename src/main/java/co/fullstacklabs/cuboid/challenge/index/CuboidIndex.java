@@ -0,0 +1,52 @@
+package co.fullstacklabs.cuboid.challenge.index;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * In-memory view of the cuboids kept in step with the database. Writes are applied once
+ * the transaction that made them commits, or right away outside a transaction.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public interface CuboidIndex {
+
+    /**
+     * Adds a cuboid, or replaces it when already indexed.
+     *
+     * @param cuboid - Persisted cuboid
+     */
+    void put(CuboidDTO cuboid);
+
+    /**
+     * Adds or replaces many cuboids at once.
+     *
+     * @param cuboids - Persisted cuboids
+     */
+    void putAll(List<CuboidDTO> cuboids);
+
+    /**
+     * Removes a cuboid.
+     *
+     * @param cuboidId - Cuboid ID
+     */
+    void remove(long cuboidId);
+
+    /**
+     * Replaces everything indexed with the cuboids read from the database.
+     */
+    void rebuild();
+
+    /**
+     * Replaces everything indexed with the given cuboids. Writes applied while they are read
+     * are replayed on top of them, so none is lost.
+     *
+     * @param cuboids - Opens a stream over every cuboid, read inside a read-only transaction
+     */
+    void load(Supplier<Stream<CuboidDTO>> cuboids);
+
+}
@@ -0,0 +1,72 @@
+package co.fullstacklabs.cuboid.challenge.index;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Hands every cuboid write to all the in-memory indexes that are enabled, so writers
+ * don't need to know which ones there are.
+ *
+ * The indexes are built from the database once the application is up, unless they were
+ * already loaded from somewhere else, such as a snapshot, during startup.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+public class CuboidIndexes implements CuboidIndex {
+
+    private final List<CuboidIndex> indexes;
+    private volatile boolean loaded;
+
+    @Autowired
+    public CuboidIndexes(List<CuboidIndex> indexes) {
+        this.indexes = List.copyOf(indexes);
+    }
+
+    /**
+     * Builds the indexes from the database once the application is up, if nothing loaded them yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!loaded) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void put(CuboidDTO cuboid) {
+        indexes.forEach(index -> index.put(cuboid));
+    }
+
+    @Override
+    public void putAll(List<CuboidDTO> cuboids) {
+        indexes.forEach(index -> index.putAll(cuboids));
+    }
+
+    @Override
+    public void remove(long cuboidId) {
+        indexes.forEach(index -> index.remove(cuboidId));
+    }
+
+    @Override
+    public void rebuild() {
+        indexes.forEach(CuboidIndex::rebuild);
+        loaded = true;
+    }
+
+    @Override
+    public void load(Supplier<Stream<CuboidDTO>> cuboids) {
+        indexes.forEach(index -> index.load(cuboids));
+        loaded = true;
+    }
+
+}
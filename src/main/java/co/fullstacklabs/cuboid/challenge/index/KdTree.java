@@ -0,0 +1,168 @@
+package co.fullstacklabs.cuboid.challenge.index;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Immutable 3-d tree over cuboids keyed by their sorted dimensions (smallest, middle,
+ * largest). The tree is stored implicitly in one array: the node of a range sits at its
+ * middle, with the lower half of the range on its left and the upper half on its right,
+ * splitting on the three keys in turn.
+ *
+ * With rotation allowed, a cuboid fits within some bounds exactly when each of its
+ * sorted dimensions is at most the matching sorted bound, so a "fits-in" lookup is a
+ * dominance query on this tree.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+final class KdTree {
+
+    private static final int DIMENSIONS = 3;
+
+    private final Entry[] entries;
+
+    private KdTree(Entry[] entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Builds a balanced tree with a median split per node, in O(n log n).
+     *
+     * @param entries - Entries to index, rearranged in place
+     * @return KdTree
+     */
+    static KdTree build(Entry[] entries) {
+        build(entries, 0, entries.length, 0);
+        return new KdTree(entries);
+    }
+
+    int size() {
+        return entries.length;
+    }
+
+    /**
+     * Hands every entry to the consumer, in tree order.
+     *
+     * @param consumer - Receives each entry
+     */
+    void forEach(Consumer<Entry> consumer) {
+        for (Entry entry : entries) {
+            consumer.accept(entry);
+        }
+    }
+
+    /**
+     * Visits every entry whose sorted dimensions are all within the sorted bounds.
+     *
+     * @param bounds - Sorted bounds, smallest first
+     * @param consumer - Receives each match
+     */
+    void forEachFitting(float[] bounds, Consumer<Entry> consumer) {
+        forEachFitting(0, entries.length, 0, bounds, consumer);
+    }
+
+    private void forEachFitting(int from, int to, int axis, float[] bounds, Consumer<Entry> consumer) {
+        if (from >= to) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        Entry node = entries[middle];
+        if (node.fitsWithin(bounds)) {
+            consumer.accept(node);
+        }
+
+        int next = (axis + 1) % DIMENSIONS;
+        forEachFitting(from, middle, next, bounds, consumer);
+        // Everything on the right is at least the node's key, so it can only fit if the node's key does.
+        if (node.key(axis) <= bounds[axis]) {
+            forEachFitting(middle + 1, to, next, bounds, consumer);
+        }
+    }
+
+    private static void build(Entry[] entries, int from, int to, int axis) {
+        if (to - from <= 1) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        select(entries, from, to - 1, middle, axis);
+        int next = (axis + 1) % DIMENSIONS;
+        build(entries, from, middle, next);
+        build(entries, middle + 1, to, next);
+    }
+
+    /**
+     * Quickselect: moves the entry of the given rank on the axis to position k, with
+     * smaller or equal keys before it and greater or equal keys after it.
+     */
+    private static void select(Entry[] entries, int left, int right, int k, int axis) {
+        int low = left;
+        int high = right;
+        while (low < high) {
+            float pivot = entries[(low + high) >>> 1].key(axis);
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (entries[i].key(axis) < pivot) {
+                    i++;
+                }
+                while (entries[j].key(axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    Entry swap = entries[i];
+                    entries[i] = entries[j];
+                    entries[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * An indexed cuboid: its dimensions as stored and the same dimensions sorted.
+     */
+    static final class Entry {
+
+        final long id;
+        final float width;
+        final float height;
+        final float depth;
+        final Long bagId;
+        private final float[] sorted;
+
+        Entry(long id, float width, float height, float depth, Long bagId) {
+            this.id = id;
+            this.width = width;
+            this.height = height;
+            this.depth = depth;
+            this.bagId = bagId;
+            this.sorted = sort(width, height, depth);
+        }
+
+        float key(int axis) {
+            return sorted[axis];
+        }
+
+        boolean fitsWithin(float[] bounds) {
+            return sorted[0] <= bounds[0] && sorted[1] <= bounds[1] && sorted[2] <= bounds[2];
+        }
+
+        static float[] sort(float a, float b, float c) {
+            float[] sorted = {a, b, c};
+            Arrays.sort(sorted);
+            return sorted;
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package co.fullstacklabs.cuboid.challenge.mapper;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.model.Bag;
+import co.fullstacklabs.cuboid.challenge.model.Cuboid;
+import java.util.ArrayList;
+import java.util.List;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapping from Bag to BagDTO. In DIRECT mode the fields are copied by hand instead of
+ * matched by reflection; in REFLECTIVE mode the mapping goes to ModelMapper.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@Component
+public class BagMapper {
+
+    private final CuboidMapper cuboidMapper;
+    private final MappingMode mode;
+    private final ModelMapper modelMapper;
+
+    @Autowired
+    public BagMapper(CuboidMapper cuboidMapper, @Value("${cuboid.mapping.mode:DIRECT}") MappingMode mode,
+                     ModelMapper modelMapper) {
+        this.cuboidMapper = cuboidMapper;
+        this.mode = mode;
+        this.modelMapper = modelMapper;
+    }
+
+    public BagMapper(CuboidMapper cuboidMapper) {
+        this(cuboidMapper, MappingMode.DIRECT, null);
+    }
+
+    /**
+     * Maps a bag and its cuboids to a DTO. The cuboids are read through the bag's
+     * read-only view rather than the copy getCuboids makes.
+     *
+     * @param bag - Bag entity
+     * @return BagDTO
+     */
+    public BagDTO toDTO(Bag bag) {
+        if (mode == MappingMode.REFLECTIVE) {
+            return modelMapper.map(bag, BagDTO.class);
+        }
+        List<Cuboid> cuboids = bag.cuboidsView();
+        List<CuboidDTO> cuboidDTOs = new ArrayList<>(cuboids.size());
+        for (Cuboid cuboid : cuboids) {
+            cuboidDTOs.add(cuboidMapper.toDTO(cuboid));
+        }
+
+        BagDTO bagDTO = new BagDTO();
+        bagDTO.setId(bag.getId());
+        bagDTO.setTitle(bag.getTitle());
+        bagDTO.setVolume(bag.getVolume());
+        bagDTO.setPayloadVolume(bag.getPayloadVolume());
+        bagDTO.setAvailableVolume(bag.getAvailableVolume());
+        bagDTO.setCuboids(cuboidDTOs);
+        return bagDTO;
+    }
+
+}
@@ -0,0 +1,75 @@
+package co.fullstacklabs.cuboid.challenge.mapper;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.model.Cuboid;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapping between Cuboid and CuboidDTO. In DIRECT mode the fields are copied by hand
+ * instead of matched by reflection; in REFLECTIVE mode the mapping goes to ModelMapper.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@Component
+public class CuboidMapper {
+
+    private final MappingMode mode;
+    private final ModelMapper modelMapper;
+
+    @Autowired
+    public CuboidMapper(@Value("${cuboid.mapping.mode:DIRECT}") MappingMode mode, ModelMapper modelMapper) {
+        this.mode = mode;
+        this.modelMapper = modelMapper;
+    }
+
+    public CuboidMapper() {
+        this(MappingMode.DIRECT, null);
+    }
+
+    /**
+     * Maps a cuboid to its DTO, computing the volume when the entity does not carry it.
+     *
+     * @param cuboid - Cuboid entity
+     * @return CuboidDTO
+     */
+    public CuboidDTO toDTO(Cuboid cuboid) {
+        if (mode == MappingMode.REFLECTIVE) {
+            return modelMapper.map(cuboid, CuboidDTO.class);
+        }
+        CuboidDTO cuboidDTO = new CuboidDTO();
+        cuboidDTO.setId(cuboid.getId());
+        cuboidDTO.setWidth(cuboid.getWidth());
+        cuboidDTO.setHeight(cuboid.getHeight());
+        cuboidDTO.setDepth(cuboid.getDepth());
+        cuboidDTO.setVolume(cuboid.getVolume() != null
+                ? cuboid.getVolume()
+                : (double) cuboid.getWidth() * cuboid.getHeight() * cuboid.getDepth());
+        cuboidDTO.setBagId(cuboid.getBag() != null ? cuboid.getBag().getId() : null);
+        return cuboidDTO;
+    }
+
+    /**
+     * Maps a DTO to a new cuboid. The bag is left for the caller to resolve.
+     *
+     * @param cuboidDTO - Cuboid DTO
+     * @return Cuboid
+     */
+    public Cuboid toEntity(CuboidDTO cuboidDTO) {
+        if (mode == MappingMode.REFLECTIVE) {
+            return modelMapper.map(cuboidDTO, Cuboid.class);
+        }
+        Cuboid cuboid = new Cuboid();
+        cuboid.setId(cuboidDTO.getId());
+        cuboid.setWidth(cuboidDTO.getWidth());
+        cuboid.setHeight(cuboidDTO.getHeight());
+        cuboid.setDepth(cuboidDTO.getDepth());
+        cuboid.setVolume(cuboidDTO.getVolume());
+        return cuboid;
+    }
+
+}
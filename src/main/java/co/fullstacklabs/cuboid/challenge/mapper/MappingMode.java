@@ -0,0 +1,18 @@
+package co.fullstacklabs.cuboid.challenge.mapper;
+
+/**
+ * How BagMapper and CuboidMapper map entities and DTOs, selected with cuboid.mapping.mode.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public enum MappingMode {
+
+    /** The mappers hand the mapping to ModelMapper, which matches properties by reflection. */
+    REFLECTIVE,
+
+    /** The mappers copy the fields themselves. */
+    DIRECT
+
+}
@@ -0,0 +1,52 @@
+package co.fullstacklabs.cuboid.challenge.metrics;
+
+import java.util.Map;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts cuboids rejected because their bag had no room left, tagged by the check
+ * that rejected them: the in-memory ledger or the persisted payload. The counters are
+ * registered once, so recording a rejection is a map lookup and an increment.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@Component
+public class CapacityMetrics {
+
+    public static final String REJECTIONS = "cuboid.capacity.rejections";
+    public static final String LEDGER_CHECK = "ledger";
+    public static final String PAYLOAD_CHECK = "payload";
+
+    private final Map<String, Counter> rejections;
+
+    public CapacityMetrics(MeterRegistry registry) {
+        this.rejections = Map.of(
+                LEDGER_CHECK, counter(registry, LEDGER_CHECK),
+                PAYLOAD_CHECK, counter(registry, PAYLOAD_CHECK));
+    }
+
+    /**
+     * Counts one capacity rejection.
+     *
+     * @param check - Check that rejected it, LEDGER_CHECK or PAYLOAD_CHECK
+     */
+    public void rejected(String check) {
+        Counter counter = rejections.get(check);
+        if (counter == null) {
+            throw new IllegalArgumentException("Unknown capacity check: " + check);
+        }
+        counter.increment();
+    }
+
+    private static Counter counter(MeterRegistry registry, String check) {
+        return Counter.builder(REJECTIONS)
+                .description("Cuboids rejected for lack of bag capacity")
+                .tag("check", check)
+                .register(registry);
+    }
+
+}
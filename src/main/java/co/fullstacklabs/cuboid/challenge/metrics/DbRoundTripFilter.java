@@ -0,0 +1,75 @@
+package co.fullstacklabs.cuboid.challenge.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records how many SQL statements each request issued, tagged with the request
+ * method and the matched URI pattern, as the http.server.requests.db.statements summary.
+ * The counter is kept in a request attribute, so a request that goes async keeps counting
+ * on the handler thread and on the async dispatch, and is recorded once that dispatch ends.
+ * Statements issued after the request thread returns, such as the ones of a
+ * streaming response body, are not counted.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@Component
+public class DbRoundTripFilter extends OncePerRequestFilter {
+
+    private static final String COUNTER_ATTRIBUTE = DbRoundTripFilter.class.getName() + ".COUNTER";
+
+    private final StatementCounter statementCounter;
+    private final MeterRegistry registry;
+
+    public DbRoundTripFilter(StatementCounter statementCounter, MeterRegistry registry) {
+        this.statementCounter = statementCounter;
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AtomicLong counter = (AtomicLong) request.getAttribute(COUNTER_ATTRIBUTE);
+        if (counter == null) {
+            counter = new AtomicLong();
+            request.setAttribute(COUNTER_ATTRIBUTE, counter);
+        }
+        statementCounter.bind(counter);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            statementCounter.unbind();
+            if (!isAsyncStarted(request)) {
+                record(request, counter.get());
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, long statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.requests.db.statements")
+                .description("SQL statements issued per request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(registry)
+                .record(statements);
+    }
+
+}
@@ -0,0 +1,71 @@
+package co.fullstacklabs.cuboid.challenge.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the SQL statements Hibernate prepares into the counter bound to the current
+ * thread, so the database round trips of a request can be measured. A request binds
+ * its counter on every thread that works on it: the servlet threads, and the handler
+ * thread through {@link #propagate(Runnable)}.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+@Component
+public class StatementCounter implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<AtomicLong> CURRENT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicLong counter = CURRENT.get();
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /**
+     * Counts the statements prepared on the current thread into the given counter.
+     *
+     * @param counter - Counter of the request the thread works on
+     */
+    public void bind(AtomicLong counter) {
+        CURRENT.set(counter);
+    }
+
+    /**
+     * Stops counting on the current thread.
+     */
+    public void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Wraps a task so that it counts into the counter bound to the submitting thread.
+     *
+     * @param task - Task submitted on behalf of the current request
+     * @return Runnable
+     */
+    public Runnable propagate(Runnable task) {
+        AtomicLong counter = CURRENT.get();
+        if (counter == null) {
+            return task;
+        }
+        return () -> {
+            AtomicLong previous = CURRENT.get();
+            CURRENT.set(counter);
+            try {
+                task.run();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,46 @@
+package co.fullstacklabs.cuboid.challenge.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.modelmapper.ModelMapper;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ModelMapper that times every {@link #map(Object, Class)} call as cuboid.mapping,
+ * tagged with the source and destination types.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public class TimedModelMapper extends ModelMapper {
+
+    public static final String MAPPING_TIMER = "cuboid.mapping";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public TimedModelMapper(MeterRegistry registry) {
+        super();
+        this.registry = registry;
+    }
+
+    @Override
+    public <D> D map(Object source, Class<D> destinationType) {
+        if (source == null) {
+            return super.map(source, destinationType);
+        }
+        return timer(source.getClass(), destinationType).record(() -> super.map(source, destinationType));
+    }
+
+    private Timer timer(Class<?> sourceType, Class<?> destinationType) {
+        String key = sourceType.getName() + '>' + destinationType.getName();
+        return timers.computeIfAbsent(key, ignored -> Timer.builder(MAPPING_TIMER)
+                .description("ModelMapper mapping time")
+                .tag("source", sourceType.getSimpleName())
+                .tag("destination", destinationType.getSimpleName())
+                .register(registry));
+    }
+
+}
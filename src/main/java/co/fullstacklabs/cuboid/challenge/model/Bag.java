@@ -5,8 +5,12 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.jetbrains.annotations.NotNull;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import javax.persistence.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -27,7 +31,9 @@ public class Bag {
     public static final int TITLE_MAX_SIZE = 100;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bags_seq")
+    @GenericGenerator(name = "bags_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "BAGS_SEQ"))
     private Long id;
 
     @Column(name = "VOLUME", nullable = false)
@@ -36,11 +42,12 @@ public class Bag {
     @Column(name = "TITLE", nullable = false, length = TITLE_MAX_SIZE)
     private String title;
 
-    @Transient
-    private Double payloadVolume = 0.0d;
+    @Column(name = "PAYLOAD_VOLUME", nullable = false)
+    private double payloadVolume;
 
-    @Transient
-    private Double availableVolume = 0.0d;
+    @Version
+    @Column(name = "VERSION", nullable = false)
+    private long version;
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true, mappedBy = "bag")
     @Setter(AccessLevel.PRIVATE)
@@ -61,9 +68,28 @@ public class Bag {
         return List.copyOf(cuboids);
     }
 
+    /**
+     * Returns a read-only view of the cuboids, without copying them.
+     *
+     * @return List<Cuboid>
+     */
+
+    public List<Cuboid> cuboidsView() {
+        return Collections.unmodifiableList(cuboids);
+    }
+
+    /**
+     * Returns the volume still free in the bag, based on the persisted payload.
+     *
+     * @return double
+     */
+
+    public double getAvailableVolume() {
+        return this.volume - this.payloadVolume;
+    }
+
     public void addCuboid(@NotNull Cuboid cuboid) {
         this.payloadVolume = this.payloadVolume + (cuboid.getHeight() * cuboid.getWidth() * cuboid.getDepth());
-        this.availableVolume = this.volume - this.payloadVolume;
         cuboids.add(cuboid);
     }
 
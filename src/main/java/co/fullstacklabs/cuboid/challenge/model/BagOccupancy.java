@@ -0,0 +1,36 @@
+package co.fullstacklabs.cuboid.challenge.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Entity representing the Bag Occupancy read table, written only by BagOccupancyView
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Entity
+@Immutable
+@Table(name = "BAG_OCCUPANCY")
+@Getter
+@NoArgsConstructor
+public class BagOccupancy {
+
+    @Id
+    @Column(name = "BAG_ID")
+    private Long bagId;
+
+    @Column(name = "CUBOID_COUNT", nullable = false)
+    private long cuboidCount;
+
+    @Column(name = "PAYLOAD_VOLUME", nullable = false)
+    private double payloadVolume;
+
+}
@@ -0,0 +1,39 @@
+package co.fullstacklabs.cuboid.challenge.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Row of the Bags table as read by the reactive repositories
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Table("BAGS")
+@Getter
+@Setter
+public class BagRow {
+
+    @Id
+    private Long id;
+
+    @Column("VOLUME")
+    private double volume;
+
+    @Column("TITLE")
+    private String title;
+
+    @Column("PAYLOAD_VOLUME")
+    private double payloadVolume;
+
+    @Version
+    @Column("VERSION")
+    private Long version;
+
+}
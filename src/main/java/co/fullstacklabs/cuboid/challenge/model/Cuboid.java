@@ -2,6 +2,9 @@ package co.fullstacklabs.cuboid.challenge.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 import javax.persistence.*;
 
 /**
@@ -19,7 +22,9 @@ import javax.persistence.*;
 public class Cuboid {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cuboids_seq")
+    @GenericGenerator(name = "cuboids_seq", strategy = PooledSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "CUBOIDS_SEQ"))
     private Long id;
 
     @Column(name = "WIDTH", nullable = false)
@@ -31,11 +36,21 @@ public class Cuboid {
     @Column(name = "DEPTH", nullable = false)
     private float depth;
 
-    @Transient
+    /**
+     * Generated by the database from the dimensions, so it can be filtered and indexed.
+     * Kept in step on the entity before every write to spare a re-read after the flush.
+     */
+    @Column(name = "VOLUME", insertable = false, updatable = false)
     private Double volume;
 
     @ManyToOne
     @JoinColumn(name = "BAG_ID", nullable = false)
     private Bag bag;
 
+    @PrePersist
+    @PreUpdate
+    void computeVolume() {
+        this.volume = (double) width * height * depth;
+    }
+
 }
@@ -0,0 +1,37 @@
+package co.fullstacklabs.cuboid.challenge.model;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Row of the Cuboids table as read and written by the reactive repositories
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Table("CUBOIDS")
+@Getter
+@Setter
+public class CuboidRow {
+
+    @Id
+    private Long id;
+
+    @Column("WIDTH")
+    private float width;
+
+    @Column("HEIGHT")
+    private float height;
+
+    @Column("DEPTH")
+    private float depth;
+
+    @Column("BAG_ID")
+    private Long bagId;
+
+}
@@ -0,0 +1,264 @@
+package co.fullstacklabs.cuboid.challenge.occupancy;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagOccupancyDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.event.CuboidCreated;
+import co.fullstacklabs.cuboid.challenge.event.CuboidDeleted;
+import co.fullstacklabs.cuboid.challenge.event.CuboidMoved;
+import co.fullstacklabs.cuboid.challenge.event.CuboidResized;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Cuboid count and payload of every bag, kept in the BAG_OCCUPANCY table and in memory and
+ * updated incrementally from the cuboid events, so readers get them without summing the
+ * bag's cuboids.
+ *
+ * Events are applied to the table just before the write that published them commits, on
+ * its connection and in its transaction, so the table commits or rolls back with the
+ * cuboids. The updated rows are copied to memory once it commits; each change bumps the
+ * row's version under its lock, and memory keeps the newest version of a bag whatever
+ * order the copies arrive in. Events published outside a transaction, as the reactive
+ * writers do, are applied right away in a transaction of their own: one that fails is
+ * logged and leaves its bags stale until the next such event or the next rebuild
+ * recomputes them from their cuboids. Bags that never held a cuboid have no entry.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+public class BagOccupancyView {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BagOccupancyView.class);
+
+    private static final String SELECT_ALL =
+            "select BAG_ID, CUBOID_COUNT, PAYLOAD_VOLUME, VERSION from BAG_OCCUPANCY";
+    private static final String SELECT_BAGS = SELECT_ALL + " where BAG_ID in (:bagIds)";
+    private static final String APPLY_CHANGE =
+            "merge into BAG_OCCUPANCY o using (select cast(:bagId as bigint) as BAG_ID,"
+                    + " cast(:cuboids as bigint) as CUBOIDS, cast(:volume as double) as VOLUME) d"
+                    + " on o.BAG_ID = d.BAG_ID"
+                    + " when matched then update set CUBOID_COUNT = CUBOID_COUNT + d.CUBOIDS,"
+                    + " PAYLOAD_VOLUME = case when CUBOID_COUNT + d.CUBOIDS = 0 then 0 else PAYLOAD_VOLUME + d.VOLUME end,"
+                    + " VERSION = VERSION + 1"
+                    + " when not matched then insert (BAG_ID, CUBOID_COUNT, PAYLOAD_VOLUME)"
+                    + " values (d.BAG_ID, d.CUBOIDS, d.VOLUME)";
+    private static final String RECOMPUTE =
+            "merge into BAG_OCCUPANCY o using (select b.ID as BAG_ID, count(c.ID) as CUBOIDS,"
+                    + " coalesce(sum(c.VOLUME), 0) as VOLUME from BAGS b left join CUBOIDS c on c.BAG_ID = b.ID"
+                    + " %s group by b.ID) d"
+                    + " on o.BAG_ID = d.BAG_ID"
+                    + " when matched then update set CUBOID_COUNT = d.CUBOIDS, PAYLOAD_VOLUME = d.VOLUME,"
+                    + " VERSION = VERSION + 1"
+                    + " when not matched and d.CUBOIDS > 0 then insert (BAG_ID, CUBOID_COUNT, PAYLOAD_VOLUME)"
+                    + " values (d.BAG_ID, d.CUBOIDS, d.VOLUME)";
+    private static final String RECOMPUTE_ALL = String.format(RECOMPUTE, "");
+    private static final String RECOMPUTE_BAGS = String.format(RECOMPUTE, "where b.ID in (:bagIds)");
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final Map<Long, Occupancy> occupancies = new ConcurrentHashMap<>();
+    /** Bags whose update failed after their cuboids committed, recomputed by the next event without a transaction. */
+    private final Set<Long> staleBags = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public BagOccupancyView(NamedParameterJdbcTemplate jdbc, PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Loads the view from the table, before the application takes any write, and again
+     * after a rebuild. Rows older than the ones in memory are skipped.
+     */
+    @PostConstruct
+    public void load() {
+        Map<Long, Occupancy> loaded = select(SELECT_ALL, new MapSqlParameterSource());
+        occupancies.keySet().retainAll(loaded.keySet());
+        loaded.forEach(this::keepNewest);
+    }
+
+    /**
+     * Occupancy of one bag, if it ever held a cuboid.
+     *
+     * @param bagId - Bag ID
+     * @return Optional<BagOccupancyDTO>
+     */
+    public Optional<BagOccupancyDTO> find(long bagId) {
+        return Optional.ofNullable(occupancies.get(bagId)).map(occupancy -> occupancy.toDTO(bagId));
+    }
+
+    /**
+     * Occupancy of every bag that ever held a cuboid.
+     *
+     * @return List<BagOccupancyDTO> ordered by bag ID
+     */
+    public List<BagOccupancyDTO> findAll() {
+        return new TreeMap<>(occupancies).entrySet().stream()
+                .map(entry -> entry.getValue().toDTO(entry.getKey()))
+                .collect(Collectors.toList());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(CuboidCreated event) {
+        Map<Long, Occupancy> changes = new TreeMap<>();
+        for (CuboidDTO cuboid : event.getCuboids()) {
+            double volume = (double) cuboid.getWidth() * cuboid.getHeight() * cuboid.getDepth();
+            changes.merge(cuboid.getBagId(), new Occupancy(1, volume), Occupancy::plus);
+        }
+        apply(changes);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(CuboidResized event) {
+        apply(Map.of(event.getBagId(), new Occupancy(0, event.getVolume() - event.getPreviousVolume())));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(CuboidMoved event) {
+        Map<Long, Occupancy> changes = new TreeMap<>();
+        changes.put(event.getFromBagId(), new Occupancy(-1, -event.getPreviousVolume()));
+        changes.put(event.getToBagId(), new Occupancy(1, event.getVolume()));
+        apply(changes);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void on(CuboidDeleted event) {
+        apply(Map.of(event.getBagId(), new Occupancy(-1, -event.getVolume())));
+    }
+
+    /**
+     * Recomputes every row of the table from the cuboids in the current transaction, or in
+     * a new one without it, and reloads the view once it commits.
+     */
+    public void rebuild() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            transaction.executeWithoutResult(status -> rebuild());
+            return;
+        }
+        List<Long> recomputed = List.copyOf(staleBags);
+        jdbc.update(RECOMPUTE_ALL, Map.of());
+        afterCommit(() -> {
+            recomputed.forEach(staleBags::remove);
+            load();
+        });
+    }
+
+    /**
+     * Applies the changes in the writer's transaction. Without one, they are applied in a
+     * transaction of their own together with the stale bags, and a failure is logged
+     * rather than thrown, since the cuboids have already committed.
+     */
+    private void apply(Map<Long, Occupancy> changes) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            write(changes, List.of());
+            return;
+        }
+        List<Long> recomputed = List.copyOf(staleBags);
+        try {
+            transaction.executeWithoutResult(status -> write(changes, recomputed));
+        } catch (RuntimeException e) {
+            staleBags.addAll(changes.keySet());
+            LOGGER.warn("Bag occupancy of bags {} could not be updated, it will be recomputed from their cuboids",
+                    changes.keySet(), e);
+        }
+    }
+
+    /**
+     * Adds the changes to the table, bag by bag in ID order, recomputes the given stale bags,
+     * and copies the rows to the view once the transaction commits.
+     */
+    private void write(Map<Long, Occupancy> changes, List<Long> recomputed) {
+        MapSqlParameterSource[] params = changes.entrySet().stream()
+                .map(change -> new MapSqlParameterSource()
+                        .addValue("bagId", change.getKey())
+                        .addValue("cuboids", change.getValue().cuboidCount)
+                        .addValue("volume", change.getValue().payloadVolume))
+                .toArray(MapSqlParameterSource[]::new);
+        jdbc.batchUpdate(APPLY_CHANGE, params);
+
+        Set<Long> bagIds = new TreeSet<>(changes.keySet());
+        if (!recomputed.isEmpty()) {
+            jdbc.update(RECOMPUTE_BAGS, new MapSqlParameterSource("bagIds", recomputed));
+            bagIds.addAll(recomputed);
+        }
+        Map<Long, Occupancy> rows = select(SELECT_BAGS, new MapSqlParameterSource("bagIds", bagIds));
+        afterCommit(() -> {
+            recomputed.forEach(staleBags::remove);
+            rows.forEach(this::keepNewest);
+        });
+    }
+
+    private Map<Long, Occupancy> select(String sql, MapSqlParameterSource params) {
+        Map<Long, Occupancy> rows = new HashMap<>();
+        jdbc.query(sql, params, resultSet -> {
+            rows.put(resultSet.getLong("BAG_ID"), new Occupancy(resultSet.getLong("CUBOID_COUNT"),
+                    resultSet.getDouble("PAYLOAD_VOLUME"), resultSet.getLong("VERSION")));
+        });
+        return rows;
+    }
+
+    private void keepNewest(long bagId, Occupancy row) {
+        occupancies.merge(bagId, row, (current, next) -> next.version >= current.version ? next : current);
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /** Cuboid count and payload of a bag at a row version, or a change to them. */
+    private static final class Occupancy {
+
+        private final long cuboidCount;
+        private final double payloadVolume;
+        private final long version;
+
+        private Occupancy(long cuboidCount, double payloadVolume) {
+            this(cuboidCount, payloadVolume, 0);
+        }
+
+        private Occupancy(long cuboidCount, double payloadVolume, long version) {
+            this.cuboidCount = cuboidCount;
+            this.payloadVolume = payloadVolume;
+            this.version = version;
+        }
+
+        /** Adds two changes to the same bag. */
+        private Occupancy plus(Occupancy change) {
+            return new Occupancy(cuboidCount + change.cuboidCount, payloadVolume + change.payloadVolume);
+        }
+
+        private BagOccupancyDTO toDTO(long bagId) {
+            return new BagOccupancyDTO(bagId, cuboidCount, payloadVolume);
+        }
+
+    }
+
+}
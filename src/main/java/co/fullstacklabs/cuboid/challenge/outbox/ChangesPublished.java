@@ -0,0 +1,22 @@
+package co.fullstacklabs.cuboid.challenge.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by the outbox poller once it committed feed positions up to the given one.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ChangesPublished {
+
+    private final long lastPosition;
+
+}
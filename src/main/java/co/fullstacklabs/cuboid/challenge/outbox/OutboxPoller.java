@@ -0,0 +1,142 @@
+package co.fullstacklabs.cuboid.challenge.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves committed outbox entries into the change feed by giving them a position, in
+ * batches, every cuboid.outbox.poll-interval-millis.
+ *
+ * Entry IDs are taken before the write commits, so a write that commits late can hold a
+ * lower ID than entries a consumer already read. Positions are handed out here instead, after the
+ * commit, so a consumer following positions never skips an entry. The cursor row is locked
+ * while positions are assigned, so pollers sharing the database take turns.
+ *
+ * Polling starts once the context is refreshed and stops, letting a running poll finish,
+ * before the DataSource is closed. Disabled with cuboid.outbox.enabled, in which case
+ * entries are only published when {@link #publish()} is called.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+public class OutboxPoller implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxPoller.class);
+
+    private static final String LOCK_CURSOR = "select POSITION from OUTBOX_CURSOR where ID = 1 for update";
+    private static final String SELECT_UNPUBLISHED = "select ID from OUTBOX where POSITION is null order by ID limit ?";
+    private static final String ASSIGN_POSITION = "update OUTBOX set POSITION = ? where ID = ?";
+    private static final String UPDATE_CURSOR = "update OUTBOX_CURSOR set POSITION = ? where ID = 1";
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transaction;
+    private final ApplicationEventPublisher events;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final boolean enabled;
+    private volatile ThreadPoolTaskScheduler scheduler;
+    private long lastPosition;
+
+    @Autowired
+    public OutboxPoller(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                        ApplicationEventPublisher events,
+                        @Value("${cuboid.outbox.batch-size:500}") int batchSize,
+                        @Value("${cuboid.outbox.poll-interval-millis:100}") long pollIntervalMillis,
+                        @Value("${cuboid.outbox.enabled:true}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.events = events;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void start() {
+        ThreadPoolTaskScheduler pollScheduler = new ThreadPoolTaskScheduler();
+        pollScheduler.setThreadNamePrefix("outbox-");
+        pollScheduler.setWaitForTasksToCompleteOnShutdown(true);
+        pollScheduler.setAwaitTerminationSeconds(SHUTDOWN_TIMEOUT_SECONDS);
+        pollScheduler.initialize();
+        pollScheduler.scheduleWithFixedDelay(this::poll, pollIntervalMillis);
+        scheduler = pollScheduler;
+    }
+
+    @Override
+    public void stop() {
+        ThreadPoolTaskScheduler pollScheduler = scheduler;
+        scheduler = null;
+        if (pollScheduler != null) {
+            pollScheduler.shutdown();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return enabled;
+    }
+
+    /**
+     * Gives a position to every committed entry that has none, in ID order, one batch per
+     * transaction, then announces the last position.
+     *
+     * @return number of entries published
+     */
+    public synchronized int publish() {
+        int total = 0;
+        int published;
+        do {
+            published = transaction.execute(status -> publishBatch());
+            total += published;
+        } while (published == batchSize);
+        if (total > 0) {
+            events.publishEvent(new ChangesPublished(lastPosition));
+        }
+        return total;
+    }
+
+    private int publishBatch() {
+        long position = jdbc.queryForObject(LOCK_CURSOR, Long.class);
+        List<Long> ids = jdbc.queryForList(SELECT_UNPUBLISHED, Long.class, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> positions = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            positions.add(new Object[] {++position, id});
+        }
+        jdbc.batchUpdate(ASSIGN_POSITION, positions);
+        jdbc.update(UPDATE_CURSOR, position);
+        lastPosition = position;
+        return ids.size();
+    }
+
+    private void poll() {
+        try {
+            publish();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Outbox entries could not be published, retrying in {} ms", pollIntervalMillis, e);
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package co.fullstacklabs.cuboid.challenge.outbox;
+
+import co.fullstacklabs.cuboid.challenge.event.BagCreated;
+import co.fullstacklabs.cuboid.challenge.event.BagsReconciled;
+import co.fullstacklabs.cuboid.challenge.event.CuboidCreated;
+import co.fullstacklabs.cuboid.challenge.event.CuboidDeleted;
+import co.fullstacklabs.cuboid.challenge.event.CuboidMoved;
+import co.fullstacklabs.cuboid.challenge.event.CuboidResized;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Records every bag and cuboid event in the OUTBOX table, as JSON, right before the
+ * transaction that published it commits. The entry commits or rolls back with the write
+ * itself, so the change feed never shows a change that did not happen nor misses one that did.
+ * Events published outside a transaction are recorded right away.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+public class OutboxWriter {
+
+    private static final String INSERT_ENTRY = "insert into OUTBOX (EVENT_TYPE, PAYLOAD, CREATED_AT) values (?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public OutboxWriter(JdbcTemplate jdbc, ObjectMapper objectMapper) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true, classes = {
+            BagCreated.class, BagsReconciled.class,
+            CuboidCreated.class, CuboidResized.class, CuboidMoved.class, CuboidDeleted.class})
+    public void write(Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        jdbc.update(INSERT_ENTRY, event.getClass().getSimpleName(), payload, Timestamp.from(Instant.now()));
+    }
+
+}
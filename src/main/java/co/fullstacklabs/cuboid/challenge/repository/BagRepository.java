@@ -1,7 +1,21 @@
 package co.fullstacklabs.cuboid.challenge.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import co.fullstacklabs.cuboid.challenge.dto.BagCapacityDTO;
+import co.fullstacklabs.cuboid.challenge.dto.BagSummaryDTO;
 import co.fullstacklabs.cuboid.challenge.model.Bag;
 
 /**
@@ -12,4 +26,69 @@ import co.fullstacklabs.cuboid.challenge.model.Bag;
 
 @Repository
 public interface BagRepository extends JpaRepository<Bag, Long> {
-}
\ No newline at end of file
+
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Loads every bag together with its cuboids in a single query. The fetch join rules out
+     * paging, so callers that page or do not need the cuboids use the inherited finders.
+     */
+    @Query("select distinct b from Bag b left join fetch b.cuboids")
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Bag> findAllWithCuboids();
+
+    /**
+     * Lists the ID, volume and persisted payload of every bag with room left, in ID order,
+     * without loading the bag entities.
+     */
+    @Query("select new co.fullstacklabs.cuboid.challenge.dto.BagCapacityDTO(b.id, b.volume, b.payloadVolume)"
+            + " from Bag b where b.payloadVolume < b.volume order by b.id")
+    List<BagCapacityDTO> findAllWithRoom();
+
+    /**
+     * Lists every bag with the payload and cuboid count kept in the occupancy table, without touching the cuboids.
+     */
+    @Query("select new co.fullstacklabs.cuboid.challenge.dto.BagSummaryDTO(b.id, b.title, b.volume,"
+            + " coalesce(o.payloadVolume, 0.0), coalesce(o.cuboidCount, 0L))"
+            + " from Bag b left join BagOccupancy o on o.bagId = b.id"
+            + " order by b.id")
+    List<BagSummaryDTO> findAllOccupancySummaries();
+
+    /**
+     * Lists the bags with IDs in the given range, with their payload and cuboid count summed from their cuboids.
+     */
+    @Query("select new co.fullstacklabs.cuboid.challenge.dto.BagSummaryDTO(b.id, b.title, b.volume,"
+            + " coalesce(sum(c.volume), 0.0), count(c))"
+            + " from Bag b left join b.cuboids c"
+            + " where b.id between :from and :to"
+            + " group by b.id, b.title, b.volume"
+            + " order by b.id")
+    List<BagSummaryDTO> findSummariesBetween(@Param("from") long from, @Param("to") long to);
+
+    /**
+     * Lists the ID of every size-th bag in ID order, starting with the first, so that each ID
+     * opens a range of size bags however sparse the IDs are.
+     */
+    @Query(value = "select ID from (select ID, row_number() over (order by ID) as RN from BAGS)"
+            + " where mod(RN - 1, :size) = 0 order by ID", nativeQuery = true)
+    List<Long> findRangeStarts(@Param("size") int size);
+
+    /**
+     * Rewrites the stored payload of every bag from the volume of its cuboids.
+     *
+     * @return number of bags updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Bag b set b.payloadVolume ="
+            + " (select coalesce(sum(c.volume), 0.0) from Cuboid c where c.bag = b)")
+    int reconcilePayloadVolumes();
+
+    List<Bag> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select b from Bag b order by b.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Bag> streamAll();
+}
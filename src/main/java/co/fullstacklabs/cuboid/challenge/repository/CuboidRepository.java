@@ -1,7 +1,17 @@
 package co.fullstacklabs.cuboid.challenge.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
 import co.fullstacklabs.cuboid.challenge.model.Cuboid;
 
 /**
@@ -11,5 +21,31 @@ import co.fullstacklabs.cuboid.challenge.model.Cuboid;
  */
 
 @Repository
-public interface CuboidRepository extends JpaRepository<Cuboid, Long> {
+public interface CuboidRepository extends JpaRepository<Cuboid, Long>, CuboidSearchRepository {
+
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Loads every cuboid together with its bag in a single query.
+     */
+    @Override
+    @Query("select c from Cuboid c join fetch c.bag")
+    List<Cuboid> findAll();
+
+    List<Cuboid> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select c from Cuboid c join fetch c.bag order by c.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    Stream<Cuboid> streamAll();
+
+    /**
+     * Reads every cuboid straight into a DTO, without loading entities or their bags.
+     */
+    @Query("select new co.fullstacklabs.cuboid.challenge.dto.CuboidDTO(c.id, c.width, c.height, c.depth, c.volume, c.bag.id)"
+            + " from Cuboid c")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    Stream<CuboidDTO> streamAllForIndex();
 }
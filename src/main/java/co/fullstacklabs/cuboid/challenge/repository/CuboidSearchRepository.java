@@ -0,0 +1,24 @@
+package co.fullstacklabs.cuboid.challenge.repository;
+
+import java.util.List;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidSearchDTO;
+import co.fullstacklabs.cuboid.challenge.model.Cuboid;
+
+/**
+ * Range search over cuboids, mixed into CuboidRepository.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public interface CuboidSearchRepository {
+
+    /**
+     * Finds the cuboids matching every given filter, sorted and limited as requested.
+     *
+     * @param criteria - Filters, sort and limit
+     * @return List<Cuboid>
+     */
+    List<Cuboid> search(CuboidSearchDTO criteria);
+
+}
@@ -0,0 +1,78 @@
+package co.fullstacklabs.cuboid.challenge.repository;
+
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidSearchDTO;
+import co.fullstacklabs.cuboid.challenge.model.Cuboid;
+
+/**
+ * Builds the search query from the filters actually given, so the database only sees
+ * the conditions in play and can pick the (BAG_ID, VOLUME) or VOLUME index for them.
+ * Each cuboid's bag is fetched in the same statement rather than one select per bag.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public class CuboidSearchRepositoryImpl implements CuboidSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Cuboid> search(CuboidSearchDTO criteria) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Cuboid> query = builder.createQuery(Cuboid.class);
+        Root<Cuboid> cuboid = query.from(Cuboid.class);
+        cuboid.fetch("bag", JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getBagId() != null) {
+            predicates.add(builder.equal(cuboid.get("bag").get("id"), criteria.getBagId()));
+        }
+        between(builder, cuboid.<Double>get("volume"), criteria.getMinVolume(), criteria.getMaxVolume(), predicates);
+        between(builder, cuboid.<Float>get("width"), criteria.getMinWidth(), criteria.getMaxWidth(), predicates);
+        between(builder, cuboid.<Float>get("height"), criteria.getMinHeight(), criteria.getMaxHeight(), predicates);
+        between(builder, cuboid.<Float>get("depth"), criteria.getMinDepth(), criteria.getMaxDepth(), predicates);
+
+        Path<?> sortPath = cuboid.get(criteria.getSort().getAttribute());
+        boolean ascending = criteria.getDirection() == Sort.Direction.ASC;
+        List<Order> orders = new ArrayList<>(2);
+        orders.add(ascending ? builder.asc(sortPath) : builder.desc(sortPath));
+        if (criteria.getSort() != CuboidSearchDTO.SortField.ID) {
+            orders.add(ascending ? builder.asc(cuboid.get("id")) : builder.desc(cuboid.get("id")));
+        }
+
+        query.select(cuboid)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(criteria.getLimit())
+                .setHint(HINT_READONLY, true)
+                .getResultList();
+    }
+
+    private static <T extends Comparable<? super T>> void between(CriteriaBuilder builder, Path<T> path,
+                                                                   T min, T max, List<Predicate> predicates) {
+        if (min != null) {
+            predicates.add(builder.greaterThanOrEqualTo(path, min));
+        }
+        if (max != null) {
+            predicates.add(builder.lessThanOrEqualTo(path, max));
+        }
+    }
+
+}
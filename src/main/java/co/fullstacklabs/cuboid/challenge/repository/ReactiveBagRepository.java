@@ -0,0 +1,31 @@
+package co.fullstacklabs.cuboid.challenge.repository;
+
+import co.fullstacklabs.cuboid.challenge.model.BagRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the Bags table, enabled with cuboid.reactive.enabled
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public interface ReactiveBagRepository extends R2dbcRepository<BagRow, Long> {
+
+    /**
+     * Adds volume to the bag payload only if the bag still has room for it, bumping the
+     * version so concurrent JPA writers of the bag see the change.
+     *
+     * @param id - Bag ID
+     * @param volume - Volume to add
+     * @return number of bags updated, 0 when the bag does not exist or is full
+     */
+    @Modifying
+    @Query("update BAGS set PAYLOAD_VOLUME = PAYLOAD_VOLUME + :volume, VERSION = VERSION + 1 "
+            + "where ID = :id and PAYLOAD_VOLUME + :volume <= VOLUME")
+    Mono<Integer> addPayloadIfItFits(long id, double volume);
+
+}
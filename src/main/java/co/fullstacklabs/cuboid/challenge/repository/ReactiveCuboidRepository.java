@@ -0,0 +1,29 @@
+package co.fullstacklabs.cuboid.challenge.repository;
+
+import co.fullstacklabs.cuboid.challenge.model.CuboidRow;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the Cuboids table, enabled with cuboid.reactive.enabled
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public interface ReactiveCuboidRepository extends R2dbcRepository<CuboidRow, Long> {
+
+    Flux<CuboidRow> findAllByOrderByIdAsc();
+
+    /**
+     * Takes the next value of the sequence Hibernate uses for cuboids: the first ID of a
+     * pooled-lo block, handed out by PooledLoIds.
+     *
+     * @return Mono<Long>
+     */
+    @Query("select next value for CUBOIDS_SEQ")
+    Mono<Long> nextIdBlock();
+
+}
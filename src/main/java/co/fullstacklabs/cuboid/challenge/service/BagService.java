@@ -1,8 +1,11 @@
 package co.fullstacklabs.cuboid.challenge.service;
 
 import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.BagOccupancyDTO;
+import co.fullstacklabs.cuboid.challenge.dto.BagSummaryDTO;
 import co.fullstacklabs.cuboid.challenge.dto.NewBagDTO;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author FullStack Labs
@@ -13,6 +16,12 @@ public interface BagService {
 
     BagDTO create(NewBagDTO newBagDTO);
     List<BagDTO> getAll();
+    List<BagSummaryDTO> getSummaries();
+    List<BagOccupancyDTO> getOccupancies();
+    BagOccupancyDTO getOccupancy(long id);
+    List<BagDTO> getPage(long after, int limit);
+    void streamAll(Consumer<BagDTO> consumer);
     BagDTO findById(long id);
+    int reconcilePayloads();
 
 }
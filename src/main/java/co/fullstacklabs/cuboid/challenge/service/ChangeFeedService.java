@@ -0,0 +1,16 @@
+package co.fullstacklabs.cuboid.challenge.service;
+
+import co.fullstacklabs.cuboid.challenge.dto.ChangeBatchDTO;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public interface ChangeFeedService {
+
+    ChangeBatchDTO read(long since, int limit);
+    CompletableFuture<ChangeBatchDTO> await(long since, int limit, long waitMillis);
+
+}
@@ -1,7 +1,9 @@
 package co.fullstacklabs.cuboid.challenge.service;
 
 import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidSearchDTO;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * @author FullStack Labs
@@ -11,7 +13,12 @@ import java.util.List;
 public interface CuboidService {
 
     CuboidDTO create(CuboidDTO cuboid);
+    List<CuboidDTO> createAll(List<CuboidDTO> cuboidDTOs);
     List<CuboidDTO> getAll();
+    List<CuboidDTO> getPage(long after, int limit);
+    void streamAll(Consumer<CuboidDTO> consumer);
+    List<CuboidDTO> search(CuboidSearchDTO criteria);
+    List<CuboidDTO> findFitting(float width, float height, float depth, int limit);
     CuboidDTO update(Long id, CuboidDTO cuboidDTO);
     void delete(Long id);
 
@@ -0,0 +1,19 @@
+package co.fullstacklabs.cuboid.challenge.service;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagVolumeDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.VolumeBucketDTO;
+import java.util.List;
+
+/**
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public interface CuboidStatsService {
+
+    List<BagVolumeDTO> volumeByBag();
+    List<VolumeBucketDTO> volumeHistogram(int buckets, Long bagId);
+    List<CuboidDTO> largest(int limit, Long bagId);
+
+}
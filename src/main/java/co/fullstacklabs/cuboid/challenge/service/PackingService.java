@@ -0,0 +1,16 @@
+package co.fullstacklabs.cuboid.challenge.service;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.NewCuboidDTO;
+import java.util.List;
+
+/**
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public interface PackingService {
+
+    List<CuboidDTO> pack(List<NewCuboidDTO> cuboids, PackingStrategy strategy);
+
+}
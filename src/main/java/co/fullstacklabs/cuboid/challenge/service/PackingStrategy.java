@@ -0,0 +1,19 @@
+package co.fullstacklabs.cuboid.challenge.service;
+
+/**
+ * Strategies available to place cuboids into bags. Both place the largest
+ * cuboids first.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public enum PackingStrategy {
+
+    /** Each cuboid goes to the lowest-ID bag it fits in. */
+    FIRST_FIT_DECREASING,
+
+    /** Each cuboid goes to the bag it leaves with the least free volume. */
+    BEST_FIT_DECREASING
+
+}
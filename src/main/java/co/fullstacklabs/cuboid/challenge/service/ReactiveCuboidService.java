@@ -0,0 +1,17 @@
+package co.fullstacklabs.cuboid.challenge.service;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public interface ReactiveCuboidService {
+
+    Mono<CuboidDTO> create(CuboidDTO cuboid);
+    Flux<CuboidDTO> getAll();
+
+}
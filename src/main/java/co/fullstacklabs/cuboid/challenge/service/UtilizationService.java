@@ -0,0 +1,14 @@
+package co.fullstacklabs.cuboid.challenge.service;
+
+import co.fullstacklabs.cuboid.challenge.dto.UtilizationReportDTO;
+
+/**
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+public interface UtilizationService {
+
+    UtilizationReportDTO report(boolean includeBags);
+
+}
@@ -0,0 +1,20 @@
+package co.fullstacklabs.cuboid.challenge.service.impl;
+
+/**
+ * Remaining volume of a set of bags, able to pick a bag for a volume and take it.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+interface BagBins {
+
+    /**
+     * Chooses a bag with at least the given volume free and takes the volume from it.
+     *
+     * @param volume - Volume to place
+     * @return the chosen bag ID, or null when no bag can take the volume
+     */
+    Long place(double volume);
+
+}
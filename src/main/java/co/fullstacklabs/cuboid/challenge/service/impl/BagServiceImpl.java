@@ -1,21 +1,39 @@
 package co.fullstacklabs.cuboid.challenge.service.impl;
 
+import co.fullstacklabs.cuboid.challenge.MetricsConfig;
+import co.fullstacklabs.cuboid.challenge.cache.BagCache;
+import co.fullstacklabs.cuboid.challenge.concurrency.BagCapacityLedger;
 import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.BagOccupancyDTO;
+import co.fullstacklabs.cuboid.challenge.dto.BagSummaryDTO;
 import co.fullstacklabs.cuboid.challenge.dto.NewBagDTO;
+import co.fullstacklabs.cuboid.challenge.event.BagCreated;
+import co.fullstacklabs.cuboid.challenge.event.BagsReconciled;
 import co.fullstacklabs.cuboid.challenge.exception.ResourceNotFoundException;
 import co.fullstacklabs.cuboid.challenge.model.Bag;
+import co.fullstacklabs.cuboid.challenge.occupancy.BagOccupancyView;
 import co.fullstacklabs.cuboid.challenge.repository.BagRepository;
 import co.fullstacklabs.cuboid.challenge.service.BagService;
-import org.modelmapper.ModelMapper;
+import co.fullstacklabs.cuboid.challenge.mapper.BagMapper;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation class for BagService
  *
+ * Bag creation and payload reconciliation publish a bag event from within their transaction.
+ *
  * @author FullStack Labs
  * @version 1.0
  * @since 2021-10-22
@@ -23,14 +41,28 @@ import java.util.stream.Collectors;
 
 @Service
 public class BagServiceImpl implements BagService {
-   
+
+    private static final int STREAM_CLEAR_INTERVAL = Integer.parseInt(BagRepository.STREAM_FETCH_SIZE);
+
     private BagRepository repository;   
-    private ModelMapper mapper;
+    private BagMapper mapper;
+    private BagCapacityLedger ledger;
+    private BagCache bagCache;
+    private BagOccupancyView occupancyView;
+    private ApplicationEventPublisher events;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public BagServiceImpl(BagRepository repository, ModelMapper mapper){
+    public BagServiceImpl(BagRepository repository, BagMapper mapper, BagCapacityLedger ledger, BagCache bagCache,
+                          BagOccupancyView occupancyView, ApplicationEventPublisher events){
         this.repository = repository;
         this.mapper = mapper;
+        this.ledger = ledger;
+        this.bagCache = bagCache;
+        this.occupancyView = occupancyView;
+        this.events = events;
     }
 
     /**
@@ -39,11 +71,14 @@ public class BagServiceImpl implements BagService {
      * @return BagDTO
      */
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
     @Transactional
     public BagDTO create(NewBagDTO newBagDTO) {
         Bag bag = new Bag(newBagDTO.getTitle(), newBagDTO.getVolume());
         bag = repository.save(bag);
-        return mapper.map(bag, BagDTO.class);
+        BagDTO created = mapper.toDTO(bag);
+        events.publishEvent(new BagCreated(created));
+        return created;
     }
 
     /**
@@ -51,25 +86,120 @@ public class BagServiceImpl implements BagService {
      * @return List<BagDTO>
      */
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
     @Transactional(readOnly = true)
     public List<BagDTO> getAll() {
-        List<Bag> bags = repository.findAll();
+        List<Bag> bags = repository.findAllWithCuboids();
         return bags
                 .stream()
-                .map(bag -> mapper.map(bag, BagDTO.class))
+                .map(mapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * List all existing bags without their cuboids, with the cuboid count and payload read from the occupancy table
+     * @return List<BagSummaryDTO>
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public List<BagSummaryDTO> getSummaries() {
+        return repository.findAllOccupancySummaries();
+    }
+
+    /**
+     * List the cuboid count and payload of every bag that ever held a cuboid, from memory
+     * @return List<BagOccupancyDTO> ordered by bag ID
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public List<BagOccupancyDTO> getOccupancies() {
+        return occupancyView.findAll();
+    }
+
+    /**
+     * Find the cuboid count and payload of a bag, from memory. Only bags that never held a
+     * cuboid are looked up in the database.
+     * @param id - Bag ID
+     * @return BagOccupancyDTO
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public BagOccupancyDTO getOccupancy(long id) {
+        return occupancyView.find(id).orElseGet(() -> {
+            if (!repository.existsById(id)) {
+                throw new ResourceNotFoundException("Object Bag not found!");
+            }
+            return new BagOccupancyDTO(id, 0L, 0d);
+        });
+    }
+
+    /**
+     * List the bags following the given ID, in ID order
+     * @param after - Last bag ID already seen, 0 to start from the beginning
+     * @param limit - Maximum number of bags returned
+     * @return List<BagDTO>
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public List<BagDTO> getPage(long after, int limit) {
+        return repository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit))
+                .stream()
+                .map(mapper::toDTO)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Find a bag by its ID
+     * Hand every bag to the consumer, in ID order, reading them through a database cursor.
+     * The persistence context is cleared as rows are consumed so memory use does not grow
+     * with the table.
+     * @param consumer - Receives each bag as it is read
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<BagDTO> consumer) {
+        try (Stream<Bag> bags = repository.streamAll()) {
+            Iterator<Bag> iterator = bags.iterator();
+            for (int count = 1; iterator.hasNext(); count++) {
+                consumer.accept(mapper.toDTO(iterator.next()));
+                if (count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Find a bag by its ID. Results are cached until a cuboid of the bag changes.
      * @param id - Bag ID
      * @return BagDTO
      */
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
     @Transactional(readOnly = true)
     public BagDTO findById(long id) {
-        Bag bag = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Object Bag not found!"));
-        return mapper.map(bag, BagDTO.class);
+        return bagCache.get(id, bagId -> {
+            Bag bag = repository.findById(bagId).orElseThrow(() -> new ResourceNotFoundException("Object Bag not found!"));
+            return mapper.toDTO(bag);
+        });
+    }
+
+    /**
+     * Recompute the stored payload of every bag, and the occupancy table, from the cuboids, in the database
+     * @return number of bags updated
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional
+    public int reconcilePayloads() {
+        int updated = repository.reconcilePayloadVolumes();
+        occupancyView.rebuild();
+        events.publishEvent(new BagsReconciled(updated));
+        ledger.reset();
+        bagCache.clear();
+        return updated;
     }
 
 }
@@ -0,0 +1,40 @@
+package co.fullstacklabs.cuboid.challenge.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bags indexed by remaining volume, so the tightest bag for a volume is found
+ * with a single ceiling lookup.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+class BestFitBagBins implements BagBins {
+
+    private final TreeMap<Double, Deque<Long>> bagsByRemaining = new TreeMap<>();
+
+    void add(long bagId, double remaining) {
+        bagsByRemaining.computeIfAbsent(remaining, key -> new ArrayDeque<>()).addLast(bagId);
+    }
+
+    @Override
+    public Long place(double volume) {
+        Map.Entry<Double, Deque<Long>> entry = bagsByRemaining.ceilingEntry(volume);
+        if (entry == null) {
+            return null;
+        }
+
+        Long bagId = entry.getValue().pollFirst();
+        if (entry.getValue().isEmpty()) {
+            bagsByRemaining.remove(entry.getKey());
+        }
+
+        add(bagId, entry.getKey() - volume);
+        return bagId;
+    }
+
+}
@@ -0,0 +1,121 @@
+package co.fullstacklabs.cuboid.challenge.service.impl;
+
+import co.fullstacklabs.cuboid.challenge.MetricsConfig;
+import co.fullstacklabs.cuboid.challenge.dto.ChangeBatchDTO;
+import co.fullstacklabs.cuboid.challenge.dto.ChangeDTO;
+import co.fullstacklabs.cuboid.challenge.outbox.ChangesPublished;
+import co.fullstacklabs.cuboid.challenge.service.ChangeFeedService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation class for ChangeFeedService
+ *
+ * Reads the published outbox entries following a position. A read that finds none can wait
+ * for the outbox poller to publish more, holding no thread while it waits.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Service
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    private static final String SELECT_CHANGES = "select POSITION, EVENT_TYPE, PAYLOAD, CREATED_AT from OUTBOX"
+            + " where POSITION > ? order by POSITION limit ?";
+
+    private final JdbcTemplate jdbc;
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private volatile long lastPosition;
+
+    @Autowired
+    public ChangeFeedServiceImpl(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * List the changes following the given position, in position order
+     * @param since - Last position already seen, 0 to start from the beginning
+     * @param limit - Maximum number of changes returned
+     * @return ChangeBatchDTO with the changes and the position to read from next
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public ChangeBatchDTO read(long since, int limit) {
+        List<ChangeDTO> changes = jdbc.query(SELECT_CHANGES, (resultSet, row) -> new ChangeDTO(
+                resultSet.getLong("POSITION"),
+                resultSet.getString("EVENT_TYPE"),
+                resultSet.getTimestamp("CREATED_AT").toInstant(),
+                resultSet.getString("PAYLOAD")), since, limit);
+        long next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getPosition();
+        return new ChangeBatchDTO(changes, next);
+    }
+
+    /**
+     * List the changes following the given position, waiting up to waitMillis for some to be
+     * published when there are none yet
+     * @param since - Last position already seen, 0 to start from the beginning
+     * @param limit - Maximum number of changes returned
+     * @param waitMillis - How long to wait for changes, 0 to answer right away
+     * @return CompletableFuture<ChangeBatchDTO>, completed with no changes if none came in time
+     */
+    @Override
+    public CompletableFuture<ChangeBatchDTO> await(long since, int limit, long waitMillis) {
+        ChangeBatchDTO batch = read(since, limit);
+        if (!batch.getChanges().isEmpty() || waitMillis == 0) {
+            return CompletableFuture.completedFuture(batch);
+        }
+        Waiter waiter = new Waiter(since, limit, new CompletableFuture<>());
+        waiter.result.completeOnTimeout(batch, waitMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> waiters.remove(waiter));
+        waiters.add(waiter);
+        if (lastPosition > since) {
+            wake();
+        }
+        return waiter.result;
+    }
+
+    /**
+     * Answers the waiting reads that the newly published changes concern.
+     * @param event - Last position published
+     */
+    @EventListener
+    public void on(ChangesPublished event) {
+        lastPosition = Math.max(lastPosition, event.getLastPosition());
+        wake();
+    }
+
+    private void wake() {
+        long position = lastPosition;
+        for (Waiter waiter : waiters) {
+            if (waiter.since < position && waiters.remove(waiter)) {
+                waiter.result.complete(read(waiter.since, waiter.limit));
+            }
+        }
+    }
+
+    /** A read waiting for changes past its position. */
+    private static final class Waiter {
+
+        private final long since;
+        private final int limit;
+        private final CompletableFuture<ChangeBatchDTO> result;
+
+        private Waiter(long since, int limit, CompletableFuture<ChangeBatchDTO> result) {
+            this.since = since;
+            this.limit = limit;
+            this.result = result;
+        }
+
+    }
+
+}
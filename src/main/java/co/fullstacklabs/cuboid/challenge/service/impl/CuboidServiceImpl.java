@@ -1,23 +1,51 @@
 package co.fullstacklabs.cuboid.challenge.service.impl;
 
+import co.fullstacklabs.cuboid.challenge.MetricsConfig;
+import co.fullstacklabs.cuboid.challenge.cache.BagCache;
+import co.fullstacklabs.cuboid.challenge.concurrency.BagCapacityLedger;
+import co.fullstacklabs.cuboid.challenge.concurrency.RetryOnOptimisticLock;
 import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidSearchDTO;
+import co.fullstacklabs.cuboid.challenge.event.CuboidCreated;
+import co.fullstacklabs.cuboid.challenge.event.CuboidDeleted;
+import co.fullstacklabs.cuboid.challenge.event.CuboidMoved;
+import co.fullstacklabs.cuboid.challenge.event.CuboidResized;
 import co.fullstacklabs.cuboid.challenge.exception.ResourceNotFoundException;
+import co.fullstacklabs.cuboid.challenge.index.CuboidFitIndex;
+import co.fullstacklabs.cuboid.challenge.index.CuboidIndexes;
 import co.fullstacklabs.cuboid.challenge.exception.UnprocessableEntityException;
+import co.fullstacklabs.cuboid.challenge.metrics.CapacityMetrics;
 import co.fullstacklabs.cuboid.challenge.model.Bag;
 import co.fullstacklabs.cuboid.challenge.model.Cuboid;
 import co.fullstacklabs.cuboid.challenge.repository.BagRepository;
 import co.fullstacklabs.cuboid.challenge.repository.CuboidRepository;
 import co.fullstacklabs.cuboid.challenge.service.CuboidService;
-import org.modelmapper.ModelMapper;
+import co.fullstacklabs.cuboid.challenge.mapper.CuboidMapper;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Implementation class for BagService
  *
+ * Every write publishes a cuboid event from within its transaction.
+ *
  * @author FullStack Labs
  * @version 1.0
  * @since 2021-10-22
@@ -26,39 +54,119 @@ import java.util.stream.Collectors;
 @Service
 public class CuboidServiceImpl implements CuboidService {
 
+    private static final int STREAM_CLEAR_INTERVAL = Integer.parseInt(CuboidRepository.STREAM_FETCH_SIZE);
+
     private final CuboidRepository repository;
     private final BagRepository bagRepository;
-    private final ModelMapper mapper;
+    private final CuboidMapper mapper;
+    private final BagCapacityLedger ledger;
+    private final BagCache bagCache;
+    private final CapacityMetrics capacityMetrics;
+    private final CuboidFitIndex fitIndex;
+    private final CuboidIndexes indexes;
+    private final ApplicationEventPublisher events;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public CuboidServiceImpl(@Autowired CuboidRepository repository, BagRepository bagRepository, ModelMapper mapper) {
+    public CuboidServiceImpl(@Autowired CuboidRepository repository, BagRepository bagRepository, CuboidMapper mapper,
+                             BagCapacityLedger ledger, BagCache bagCache, CapacityMetrics capacityMetrics,
+                             CuboidFitIndex fitIndex, CuboidIndexes indexes, ApplicationEventPublisher events) {
         this.repository = repository;
         this.bagRepository = bagRepository;
         this.mapper = mapper;
+        this.ledger = ledger;
+        this.bagCache = bagCache;
+        this.capacityMetrics = capacityMetrics;
+        this.fitIndex = fitIndex;
+        this.indexes = indexes;
+        this.events = events;
     }
 
     /**
      * Create a new cuboid and add it to its bag checking the bag available capacity.
+     * Callers that want cuboids the capacity ledger already knows cannot fit rejected without a
+     * transaction run CapacityPrecheck first; the payload check made here is the authoritative one.
      *
      * @param cuboidDTO DTO with cuboid properties to be persisted
      * @return CuboidDTO with the data created
      */
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @RetryOnOptimisticLock
     @Transactional
     public CuboidDTO create(CuboidDTO cuboidDTO) {
-        Bag bag = getBagById(cuboidDTO.getBagId());
+        double cubeVolume = calculateVolume(cuboidDTO.getWidth(), cuboidDTO.getHeight(), cuboidDTO.getDepth());
 
-        float cubeVolume = cuboidDTO.getWidth() * cuboidDTO.getDepth() * cuboidDTO.getHeight();
+        Bag bag = getBagById(cuboidDTO.getBagId());
 
-        Cuboid cuboid = mapper.map(cuboidDTO, Cuboid.class);
+        Cuboid cuboid = mapper.toEntity(cuboidDTO);
         cuboid.setBag(bag);
 
-        if (bag.getVolume() < cubeVolume) {
-            throw new UnprocessableEntityException("Bag capacity is not enough!");
-        }
+        ledger.track(bag);
+        admit(bag, bag.getPayloadVolume(), cubeVolume);
+        ledger.reserve(bag.getId(), cubeVolume);
+        bagCache.evict(bag.getId());
 
         cuboid = repository.save(cuboid);
-        return mapper.map(cuboid, CuboidDTO.class);
+        CuboidDTO created = mapper.toDTO(cuboid);
+        indexes.put(created);
+        events.publishEvent(new CuboidCreated(Collections.singletonList(created)));
+        return created;
+    }
+
+    /**
+     * Create a batch of cuboids. Bags are loaded once and the total volume added to each
+     * bag is checked in a single pass, so either every cuboid is persisted or none is.
+     *
+     * @param cuboidDTOs DTOs with the cuboid properties to be persisted
+     * @return List<CuboidDTO> with the data created
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @RetryOnOptimisticLock
+    @Transactional
+    public List<CuboidDTO> createAll(List<CuboidDTO> cuboidDTOs) {
+        Map<Long, Double> volumeByBag = new LinkedHashMap<>();
+        for (CuboidDTO cuboidDTO : cuboidDTOs) {
+            double cubeVolume = calculateVolume(cuboidDTO.getWidth(), cuboidDTO.getHeight(), cuboidDTO.getDepth());
+            volumeByBag.merge(cuboidDTO.getBagId(), cubeVolume, Double::sum);
+        }
+
+        Map<Long, Bag> bags = bagRepository.findAllById(volumeByBag.keySet())
+                .stream()
+                .collect(Collectors.toMap(Bag::getId, Function.identity()));
+
+        if (bags.size() != volumeByBag.size()) {
+            throw new ResourceNotFoundException("Object Bag not found!");
+        }
+
+        volumeByBag.forEach((bagId, volume) -> {
+            Bag bag = bags.get(bagId);
+            ledger.track(bag);
+            admit(bag, bag.getPayloadVolume(), volume);
+        });
+        volumeByBag.forEach(ledger::reserve);
+        volumeByBag.keySet().forEach(bagCache::evict);
+
+        List<Cuboid> cuboids = new ArrayList<>(cuboidDTOs.size());
+        for (CuboidDTO cuboidDTO : cuboidDTOs) {
+            Cuboid cuboid = new Cuboid();
+            cuboid.setWidth(cuboidDTO.getWidth());
+            cuboid.setHeight(cuboidDTO.getHeight());
+            cuboid.setDepth(cuboidDTO.getDepth());
+            cuboid.setBag(bags.get(cuboidDTO.getBagId()));
+            cuboids.add(cuboid);
+        }
+
+        List<CuboidDTO> created = repository.saveAll(cuboids)
+                .stream()
+                .map(mapper::toDTO)
+                .collect(Collectors.toList());
+        indexes.putAll(created);
+        events.publishEvent(new CuboidCreated(created));
+        return created;
     }
 
     /**
@@ -66,33 +174,155 @@ public class CuboidServiceImpl implements CuboidService {
      * @return List<CuboidDTO>
      */
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
     @Transactional(readOnly = true)
     public List<CuboidDTO> getAll() {
         List<Cuboid> cuboids = repository.findAll();
         return cuboids
                 .stream()
-                .map(bag -> mapper.map(bag, CuboidDTO.class))
+                .map(mapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * List the cuboids following the given ID, in ID order
+     * @param after - Last cuboid ID already seen, 0 to start from the beginning
+     * @param limit - Maximum number of cuboids returned
+     * @return List<CuboidDTO>
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public List<CuboidDTO> getPage(long after, int limit) {
+        return repository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit))
+                .stream()
+                .map(mapper::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Hand every cuboid to the consumer, in ID order, reading them through a database cursor.
+     * The persistence context is cleared as rows are consumed so memory use does not grow
+     * with the table.
+     * @param consumer - Receives each cuboid as it is read
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<CuboidDTO> consumer) {
+        try (Stream<Cuboid> cuboids = repository.streamAll()) {
+            Iterator<Cuboid> iterator = cuboids.iterator();
+            for (int count = 1; iterator.hasNext(); count++) {
+                consumer.accept(mapper.toDTO(iterator.next()));
+                if (count % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Search cuboids by bag and by volume and dimension ranges, filtered and sorted in the database
+     * @param criteria - Filters, sort and limit
+     * @return List<CuboidDTO>
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @Transactional(readOnly = true)
+    public List<CuboidDTO> search(CuboidSearchDTO criteria) {
+        return repository.search(criteria)
+                .stream()
+                .map(mapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Find the cuboids that fit within the given bounds in any orientation, answered from the in-memory index
+     * @param width - Bound width
+     * @param height - Bound height
+     * @param depth - Bound depth
+     * @param limit - Maximum number of cuboids returned
+     * @return List<CuboidDTO> ordered by ID
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public List<CuboidDTO> findFitting(float width, float height, float depth, int limit) {
+        return fitIndex.findFitting(width, height, depth, limit);
+    }
+
     private Bag getBagById(long bagId) {
         return bagRepository
                 .findById(bagId)
                 .orElseThrow(() -> new ResourceNotFoundException("Object Bag not found!"));
     }
 
+    /**
+     * Checks that a cuboid of the given volume fits on top of the given payload and,
+     * if it does, stores the resulting payload on the bag.
+     *
+     * @param bag - Bag receiving the cuboid
+     * @param payloadVolume - Bag payload the cuboid is added to
+     * @param cubeVolume - Volume of the cuboid being admitted
+     */
+    private void admit(Bag bag, double payloadVolume, double cubeVolume) {
+        if (bag.getVolume() < payloadVolume + cubeVolume) {
+            capacityMetrics.rejected(CapacityMetrics.PAYLOAD_CHECK);
+            throw new UnprocessableEntityException("Bag capacity is not enough!");
+        }
+
+        bag.setPayloadVolume(payloadVolume + cubeVolume);
+    }
+
+    private static double release(Bag bag, double cubeVolume) {
+        return Math.max(bag.getPayloadVolume() - cubeVolume, 0d);
+    }
+
+    private static double calculateVolume(float width, float height, float depth) {
+        return (double) width * height * depth;
+    }
+
+    /**
+     * Update a cuboid, moving its volume between bags when the bag changes.
+     *
+     * @param id - Cuboid ID
+     * @param cuboidDTO - DTO with the new cuboid properties
+     * @return CuboidDTO with the data updated
+     */
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @RetryOnOptimisticLock
+    @Transactional
     public CuboidDTO update(Long id, CuboidDTO cuboidDTO) {
 
         Cuboid cuboidUpdated;
+        Long previousBagId;
+        long bagId;
+        double previousVolume;
+        double cubeVolume;
 
         try {
             Cuboid cuboid = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Object Cuboid not found!"));
             Bag bag = getBagById(cuboidDTO.getBagId());
-            float cubeVolume = cuboidDTO.getWidth() * cuboidDTO.getDepth() *  cuboidDTO.getHeight();
+            Bag previousBag = cuboid.getBag();
+            previousBagId = previousBag == null ? null : previousBag.getId();
+            bagId = bag.getId();
+            previousVolume = calculateVolume(cuboid.getWidth(), cuboid.getHeight(), cuboid.getDepth());
+            cubeVolume = calculateVolume(cuboidDTO.getWidth(), cuboidDTO.getHeight(), cuboidDTO.getDepth());
+            boolean sameBag = previousBag != null && Objects.equals(previousBag.getId(), bag.getId());
+
+            ledger.track(bag);
+            admit(bag, sameBag ? release(bag, previousVolume) : bag.getPayloadVolume(), cubeVolume);
+            ledger.reserve(bag.getId(), cubeVolume);
+            bagCache.evict(bag.getId());
+
+            if (!sameBag && previousBag != null) {
+                ledger.track(previousBag);
+                previousBag.setPayloadVolume(release(previousBag, previousVolume));
+                bagCache.evict(previousBag.getId());
+            }
 
-            if (bag.getVolume() < cubeVolume){
-                throw new UnprocessableEntityException("Bag capacity is not enough!");
+            if (previousBag != null) {
+                ledger.release(previousBag.getId(), previousVolume);
             }
 
             cuboid.setDepth(cuboidDTO.getDepth());
@@ -108,14 +338,46 @@ public class CuboidServiceImpl implements CuboidService {
            throw new UnprocessableEntityException("An unexpected error occurred while updating a cuboid!");
         }
 
-        return mapper.map(cuboidUpdated, CuboidDTO.class);
+        CuboidDTO updated = mapper.toDTO(cuboidUpdated);
+        indexes.put(updated);
+        if (previousBagId == null) {
+            events.publishEvent(new CuboidCreated(Collections.singletonList(updated)));
+        } else if (previousBagId == bagId) {
+            events.publishEvent(new CuboidResized(id, bagId, previousVolume, cubeVolume));
+        } else {
+            events.publishEvent(new CuboidMoved(id, previousBagId, bagId, previousVolume, cubeVolume));
+        }
+        return updated;
     }
 
+    /**
+     * Delete a cuboid and release its volume from the bag payload.
+     *
+     * @param id - Cuboid ID
+     */
     @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    @RetryOnOptimisticLock
+    @Transactional
     public void delete(Long id) {
         try {
-            repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Object Cuboid not found!"));
+            Cuboid cuboid = repository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Object Cuboid not found!"));
+            Bag bag = cuboid.getBag();
+
+            if (bag != null) {
+                double cubeVolume = calculateVolume(cuboid.getWidth(), cuboid.getHeight(), cuboid.getDepth());
+                ledger.track(bag);
+                bag.setPayloadVolume(release(bag, cubeVolume));
+                ledger.release(bag.getId(), cubeVolume);
+                bagCache.evict(bag.getId());
+            }
+
             repository.deleteById(id);
+            indexes.remove(id);
+            if (bag != null) {
+                events.publishEvent(new CuboidDeleted(id, bag.getId(),
+                        calculateVolume(cuboid.getWidth(), cuboid.getHeight(), cuboid.getDepth())));
+            }
         } catch (Exception e) {
             if (e instanceof ResourceNotFoundException || e instanceof UnprocessableEntityException) {
                 throw e;
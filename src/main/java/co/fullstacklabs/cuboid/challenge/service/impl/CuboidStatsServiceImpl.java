@@ -0,0 +1,68 @@
+package co.fullstacklabs.cuboid.challenge.service.impl;
+
+import co.fullstacklabs.cuboid.challenge.MetricsConfig;
+import co.fullstacklabs.cuboid.challenge.dto.BagVolumeDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.VolumeBucketDTO;
+import co.fullstacklabs.cuboid.challenge.index.CuboidColumnStore;
+import co.fullstacklabs.cuboid.challenge.service.CuboidStatsService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import java.util.List;
+
+/**
+ * Cuboid aggregates answered by scanning the in-memory column store instead of the database.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Service
+@ConditionalOnProperty(name = "cuboid.column-store.enabled", havingValue = "true")
+public class CuboidStatsServiceImpl implements CuboidStatsService {
+
+    private final CuboidColumnStore columnStore;
+
+    @Autowired
+    public CuboidStatsServiceImpl(CuboidColumnStore columnStore) {
+        this.columnStore = columnStore;
+    }
+
+    /**
+     * Number of cuboids and total volume of every bag that holds any.
+     * @return List<BagVolumeDTO> ordered by bag ID
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public List<BagVolumeDTO> volumeByBag() {
+        return columnStore.volumeByBag();
+    }
+
+    /**
+     * Cuboid counts over equally wide volume ranges.
+     * @param buckets - Number of ranges
+     * @param bagId - Bag to restrict to, or null for all cuboids
+     * @return List<VolumeBucketDTO> from the smallest volumes up
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public List<VolumeBucketDTO> volumeHistogram(int buckets, Long bagId) {
+        return columnStore.volumeHistogram(buckets, bagId);
+    }
+
+    /**
+     * The cuboids with the largest volumes.
+     * @param limit - Maximum number of cuboids returned
+     * @param bagId - Bag to restrict to, or null for all cuboids
+     * @return List<CuboidDTO> from the largest volume down
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public List<CuboidDTO> largest(int limit, Long bagId) {
+        return columnStore.largest(limit, bagId);
+    }
+
+}
@@ -0,0 +1,52 @@
+package co.fullstacklabs.cuboid.challenge.service.impl;
+
+import java.util.Arrays;
+
+/**
+ * Bags kept in a fixed order under a max segment tree of their remaining volume,
+ * so the first bag able to take a volume is found by descending the tree.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+class FirstFitBagBins implements BagBins {
+
+    private final long[] bagIds;
+    private final double[] tree;
+    private final int leaves;
+
+    FirstFitBagBins(long[] bagIds, double[] remaining) {
+        this.bagIds = bagIds.clone();
+        int size = 1;
+        while (size < Math.max(bagIds.length, 1)) {
+            size <<= 1;
+        }
+        this.leaves = size;
+        this.tree = new double[2 * size];
+        Arrays.fill(tree, Double.NEGATIVE_INFINITY);
+        System.arraycopy(remaining, 0, tree, size, remaining.length);
+        for (int node = size - 1; node > 0; node--) {
+            tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    @Override
+    public Long place(double volume) {
+        if (tree[1] < volume) {
+            return null;
+        }
+
+        int node = 1;
+        while (node < leaves) {
+            node = tree[2 * node] >= volume ? 2 * node : 2 * node + 1;
+        }
+
+        tree[node] -= volume;
+        for (int parent = node >> 1; parent > 0; parent >>= 1) {
+            tree[parent] = Math.max(tree[2 * parent], tree[2 * parent + 1]);
+        }
+        return bagIds[node - leaves];
+    }
+
+}
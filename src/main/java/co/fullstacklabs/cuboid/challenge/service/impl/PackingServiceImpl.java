@@ -0,0 +1,96 @@
+package co.fullstacklabs.cuboid.challenge.service.impl;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagCapacityDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.NewCuboidDTO;
+import co.fullstacklabs.cuboid.challenge.exception.UnprocessableEntityException;
+import co.fullstacklabs.cuboid.challenge.repository.BagRepository;
+import co.fullstacklabs.cuboid.challenge.service.CuboidService;
+import co.fullstacklabs.cuboid.challenge.service.PackingService;
+import co.fullstacklabs.cuboid.challenge.service.PackingStrategy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Implementation class for PackingService
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Service
+public class PackingServiceImpl implements PackingService {
+
+    private final BagRepository bagRepository;
+    private final CuboidService cuboidService;
+
+    @Autowired
+    public PackingServiceImpl(BagRepository bagRepository, CuboidService cuboidService) {
+        this.bagRepository = bagRepository;
+        this.cuboidService = cuboidService;
+    }
+
+    /**
+     * Choose a bag for every cuboid, largest cuboids first, and persist them all.
+     * The assignment is computed from the bags' persisted payload and then stored
+     * through CuboidService.createAll, which checks the capacity again atomically.
+     *
+     * @param cuboids - Cuboids to be placed
+     * @param strategy - How to choose among the bags a cuboid fits in
+     * @return List<CuboidDTO> with the data created, in the order received
+     */
+    @Override
+    public List<CuboidDTO> pack(List<NewCuboidDTO> cuboids, PackingStrategy strategy) {
+        double[] volumes = cuboids.stream()
+                .mapToDouble(cuboid -> (double) cuboid.getWidth() * cuboid.getHeight() * cuboid.getDepth())
+                .toArray();
+        BagBins bins = loadBins(strategy);
+
+        List<Integer> largestFirst = IntStream.range(0, volumes.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer index) -> volumes[index]).reversed())
+                .collect(Collectors.toList());
+
+        Long[] bagIds = new Long[volumes.length];
+        for (int index : largestFirst) {
+            bagIds[index] = bins.place(volumes[index]);
+            if (bagIds[index] == null) {
+                throw new UnprocessableEntityException("No bag has enough capacity for all cuboids!");
+            }
+        }
+
+        List<CuboidDTO> assigned = new ArrayList<>(volumes.length);
+        for (int index = 0; index < volumes.length; index++) {
+            NewCuboidDTO cuboid = cuboids.get(index);
+            assigned.add(CuboidDTO.builder()
+                    .width(cuboid.getWidth())
+                    .height(cuboid.getHeight())
+                    .depth(cuboid.getDepth())
+                    .volume(volumes[index])
+                    .bagId(bagIds[index])
+                    .build());
+        }
+        return cuboidService.createAll(assigned);
+    }
+
+    private BagBins loadBins(PackingStrategy strategy) {
+        List<BagCapacityDTO> bags = bagRepository.findAllWithRoom();
+
+        if (strategy == PackingStrategy.FIRST_FIT_DECREASING) {
+            return new FirstFitBagBins(
+                    bags.stream().mapToLong(BagCapacityDTO::getId).toArray(),
+                    bags.stream().mapToDouble(BagCapacityDTO::getAvailableVolume).toArray());
+        }
+
+        BestFitBagBins bins = new BestFitBagBins();
+        bags.forEach(bag -> bins.add(bag.getId(), bag.getAvailableVolume()));
+        return bins;
+    }
+
+}
@@ -0,0 +1,153 @@
+package co.fullstacklabs.cuboid.challenge.service.impl;
+
+import co.fullstacklabs.cuboid.challenge.cache.BagCache;
+import co.fullstacklabs.cuboid.challenge.concurrency.BagCapacityLedger;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.event.CuboidCreated;
+import co.fullstacklabs.cuboid.challenge.exception.ResourceNotFoundException;
+import co.fullstacklabs.cuboid.challenge.exception.UnprocessableEntityException;
+import co.fullstacklabs.cuboid.challenge.index.CuboidIndexes;
+import co.fullstacklabs.cuboid.challenge.metrics.CapacityMetrics;
+import co.fullstacklabs.cuboid.challenge.model.CuboidRow;
+import co.fullstacklabs.cuboid.challenge.repository.PooledLoIds;
+import co.fullstacklabs.cuboid.challenge.repository.ReactiveBagRepository;
+import co.fullstacklabs.cuboid.challenge.repository.ReactiveCuboidRepository;
+import co.fullstacklabs.cuboid.challenge.service.ReactiveCuboidService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.util.List;
+
+/**
+ * Non-blocking implementation of the cuboid operations over R2DBC, applying the same
+ * capacity rules as CuboidServiceImpl. The ledger, cache, indexes and cuboid events are
+ * only updated once the R2DBC transaction commits, on a thread that may block, since the
+ * event listeners write through JDBC.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Service
+@ConditionalOnProperty(name = "cuboid.reactive.enabled", havingValue = "true")
+public class ReactiveCuboidServiceImpl implements ReactiveCuboidService {
+
+    private final ReactiveCuboidRepository repository;
+    private final ReactiveBagRepository bagRepository;
+    private final R2dbcEntityTemplate template;
+    private final TransactionalOperator transactionalOperator;
+    private final BagCapacityLedger ledger;
+    private final BagCache bagCache;
+    private final CapacityMetrics capacityMetrics;
+    private final CuboidIndexes indexes;
+    private final ApplicationEventPublisher events;
+    private final PooledLoIds ids;
+
+    @Autowired
+    public ReactiveCuboidServiceImpl(ReactiveCuboidRepository repository, ReactiveBagRepository bagRepository,
+                                     R2dbcEntityTemplate template, TransactionalOperator transactionalOperator,
+                                     BagCapacityLedger ledger, BagCache bagCache, CapacityMetrics capacityMetrics,
+                                     CuboidIndexes indexes, ApplicationEventPublisher events,
+                                     @Value("${cuboid.id.allocation-size:50}") int allocationSize) {
+        this.repository = repository;
+        this.bagRepository = bagRepository;
+        this.template = template;
+        this.transactionalOperator = transactionalOperator;
+        this.ledger = ledger;
+        this.bagCache = bagCache;
+        this.capacityMetrics = capacityMetrics;
+        this.indexes = indexes;
+        this.events = events;
+        this.ids = new PooledLoIds(repository::nextIdBlock, allocationSize);
+    }
+
+    /**
+     * Create a new cuboid and add it to its bag. The payload is only added if the bag
+     * still has room for the cuboid, checked and applied by a single update, so concurrent
+     * creates cannot overfill a bag.
+     *
+     * @param cuboidDTO DTO with cuboid properties to be persisted
+     * @return Mono<CuboidDTO> with the data created
+     */
+    @Override
+    public Mono<CuboidDTO> create(CuboidDTO cuboidDTO) {
+        long bagId = cuboidDTO.getBagId();
+        double cubeVolume = (double) cuboidDTO.getWidth() * cuboidDTO.getHeight() * cuboidDTO.getDepth();
+
+        if (ledger.rejects(bagId, cubeVolume)) {
+            capacityMetrics.rejected(CapacityMetrics.LEDGER_CHECK);
+            return Mono.error(new UnprocessableEntityException("Bag capacity is not enough!"));
+        }
+
+        Mono<CuboidDTO> created = bagRepository.findById(bagId)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Object Bag not found!")))
+                .flatMap(bag -> bagRepository.addPayloadIfItFits(bagId, cubeVolume))
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        capacityMetrics.rejected(CapacityMetrics.PAYLOAD_CHECK);
+                        return Mono.error(new UnprocessableEntityException("Bag capacity is not enough!"));
+                    }
+                    return ids.nextId();
+                })
+                .flatMap(id -> {
+                    CuboidRow cuboid = new CuboidRow();
+                    cuboid.setId(id);
+                    cuboid.setWidth(cuboidDTO.getWidth());
+                    cuboid.setHeight(cuboidDTO.getHeight());
+                    cuboid.setDepth(cuboidDTO.getDepth());
+                    cuboid.setBagId(bagId);
+                    return template.insert(cuboid);
+                })
+                .map(ReactiveCuboidServiceImpl::toDTO)
+                .flatMap(cuboid -> afterCommit(() -> {
+                    ledger.reserve(bagId, cubeVolume);
+                    bagCache.evict(bagId);
+                    indexes.put(cuboid);
+                    events.publishEvent(new CuboidCreated(List.of(cuboid)));
+                }).thenReturn(cuboid));
+
+        return transactionalOperator.transactional(created);
+    }
+
+    /**
+     * List all cuboids in ID order, as the database returns them
+     * @return Flux<CuboidDTO>
+     */
+    @Override
+    public Flux<CuboidDTO> getAll() {
+        return repository.findAllByOrderByIdAsc().map(ReactiveCuboidServiceImpl::toDTO);
+    }
+
+    private static Mono<Void> afterCommit(Runnable action) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .doOnNext(synchronizations -> synchronizations.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public Mono<Void> afterCommit() {
+                        return Mono.fromRunnable(action).subscribeOn(Schedulers.boundedElastic()).then();
+                    }
+                }))
+                .then();
+    }
+
+    private static CuboidDTO toDTO(CuboidRow cuboid) {
+        return CuboidDTO.builder()
+                .id(cuboid.getId())
+                .width(cuboid.getWidth())
+                .height(cuboid.getHeight())
+                .depth(cuboid.getDepth())
+                .volume((double) cuboid.getWidth() * cuboid.getHeight() * cuboid.getDepth())
+                .bagId(cuboid.getBagId())
+                .build();
+    }
+
+}
@@ -0,0 +1,195 @@
+package co.fullstacklabs.cuboid.challenge.service.impl;
+
+import co.fullstacklabs.cuboid.challenge.MetricsConfig;
+import co.fullstacklabs.cuboid.challenge.dto.BagSummaryDTO;
+import co.fullstacklabs.cuboid.challenge.dto.BagUtilizationDTO;
+import co.fullstacklabs.cuboid.challenge.dto.UtilizationReportDTO;
+import co.fullstacklabs.cuboid.challenge.repository.BagRepository;
+import co.fullstacklabs.cuboid.challenge.service.UtilizationService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation class for UtilizationService
+ *
+ * The bags are cut into ID ranges of cuboid.utilization.chunk-size bags each, found with one
+ * query, and the list of ranges is split in halves on a dedicated fork-join pool down to
+ * single ranges. Each range sums its bags' cuboids with one grouped query in its own
+ * read-only transaction, and the partial results are merged on the way back up. The pool
+ * runs no more tasks at once than there are JDBC connections. Parts are read in separate
+ * transactions, so a report taken during writes may mix states across ID ranges.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Service
+public class UtilizationServiceImpl implements UtilizationService {
+
+    private static final int[] PERCENTILES = {50, 90, 95, 99};
+
+    private final BagRepository repository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int chunkSize;
+    private final ForkJoinPool pool;
+
+    @Autowired
+    public UtilizationServiceImpl(BagRepository repository, PlatformTransactionManager transactionManager,
+                                  @Value("${cuboid.utilization.chunk-size:10000}") int chunkSize,
+                                  @Value("${cuboid.utilization.parallelism:0}") int parallelism,
+                                  @Value("${spring.datasource.hikari.maximum-pool-size:10}") int jdbcPoolSize) {
+        this.repository = repository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        int threads = parallelism > 0
+                ? parallelism
+                : Math.min(Runtime.getRuntime().availableProcessors(), jdbcPoolSize);
+        this.pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("utilization-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Fill ratio of every bag, computed from its cuboids, with fleet-wide totals, fill ratio
+     * percentiles and the bags holding more than their volume
+     * @param includeBags - Whether to list every bag in the report
+     * @return UtilizationReportDTO
+     */
+    @Override
+    @Timed(MetricsConfig.SERVICE_TIMER)
+    public UtilizationReportDTO report(boolean includeBags) {
+        long[] starts = repository.findRangeStarts(chunkSize).stream().mapToLong(Long::longValue).toArray();
+        Partial total = starts.length == 0 ? new Partial(List.of()) : pool.invoke(new RangeTask(starts, 0, starts.length));
+
+        double[] ratios = total.bags.stream()
+                .map(BagUtilizationDTO::getFillRatio)
+                .filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue)
+                .sorted()
+                .toArray();
+        List<BagUtilizationDTO> overfilled = total.bags.stream()
+                .filter(bag -> bag.getPayloadVolume() > bag.getVolume())
+                .collect(Collectors.toList());
+
+        return UtilizationReportDTO.builder()
+                .bagCount((long) total.bags.size())
+                .cuboidCount(total.cuboidCount)
+                .totalVolume(total.volume)
+                .totalPayloadVolume(total.payloadVolume)
+                .fillRatio(fillRatio(total.payloadVolume, total.volume))
+                .fillRatioPercentiles(percentiles(ratios))
+                .overfilledBags(overfilled)
+                .bags(includeBags ? total.bags : null)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /** Nearest-rank percentiles of the sorted ratios, keyed p50, p90 and so on; empty without ratios. */
+    private static Map<String, Double> percentiles(double[] sortedRatios) {
+        Map<String, Double> percentiles = new LinkedHashMap<>();
+        if (sortedRatios.length == 0) {
+            return percentiles;
+        }
+        for (int percentile : PERCENTILES) {
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedRatios.length);
+            percentiles.put("p" + percentile, sortedRatios[Math.max(rank, 1) - 1]);
+        }
+        return percentiles;
+    }
+
+    /** Payload over volume, or null for a bag without volume. */
+    private static Double fillRatio(double payloadVolume, double volume) {
+        return volume > 0 ? payloadVolume / volume : null;
+    }
+
+    private static BagUtilizationDTO toUtilization(BagSummaryDTO summary) {
+        return new BagUtilizationDTO(summary.getId(), summary.getTitle(), summary.getVolume(),
+                summary.getCuboidCount(), summary.getPayloadVolume(),
+                fillRatio(summary.getPayloadVolume(), summary.getVolume()));
+    }
+
+    /** Utilization of the bags in ranges first..last - 1, each running from its start to the next one's. */
+    private final class RangeTask extends RecursiveTask<Partial> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] starts;
+        private final int first;
+        private final int last;
+
+        private RangeTask(long[] starts, int first, int last) {
+            this.starts = starts;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (last - first == 1) {
+                long to = last < starts.length ? starts[last] - 1 : Long.MAX_VALUE;
+                List<BagSummaryDTO> summaries = readOnlyTransaction.execute(
+                        status -> repository.findSummariesBetween(starts[first], to));
+                return new Partial(summaries.stream()
+                        .map(UtilizationServiceImpl::toUtilization)
+                        .collect(Collectors.toList()));
+            }
+            int middle = (first + last) >>> 1;
+            RangeTask lower = new RangeTask(starts, first, middle);
+            lower.fork();
+            Partial upper = new RangeTask(starts, middle, last).compute();
+            return lower.join().merge(upper);
+        }
+
+    }
+
+    /** Totals and bags of one ID range, in ID order. */
+    private static final class Partial {
+
+        private final List<BagUtilizationDTO> bags;
+        private long cuboidCount;
+        private double volume;
+        private double payloadVolume;
+
+        private Partial(List<BagUtilizationDTO> bags) {
+            this.bags = new ArrayList<>(bags);
+            for (BagUtilizationDTO bag : bags) {
+                cuboidCount += bag.getCuboidCount();
+                volume += bag.getVolume();
+                payloadVolume += bag.getPayloadVolume();
+            }
+        }
+
+        /** Appends a partial covering the IDs right after this one's. */
+        private Partial merge(Partial upper) {
+            bags.addAll(upper.bags);
+            cuboidCount += upper.cuboidCount;
+            volume += upper.volume;
+            payloadVolume += upper.payloadVolume;
+            return this;
+        }
+
+    }
+
+}
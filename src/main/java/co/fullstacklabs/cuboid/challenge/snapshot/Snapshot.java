@@ -0,0 +1,175 @@
+package co.fullstacklabs.cuboid.challenge.snapshot;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A snapshot file mapped into memory, read only. Records are decoded straight from the
+ * mapped pages as they are streamed, so opening a snapshot costs nothing beyond the header
+ * and the pages are read from the file, or the OS page cache, on first touch.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+final class Snapshot implements Closeable {
+
+    private final FileChannel channel;
+    private final SnapshotFingerprint fingerprint;
+    private final ByteBuffer cuboids;
+    private final ByteBuffer bags;
+
+    private Snapshot(FileChannel channel, SnapshotFingerprint fingerprint, ByteBuffer cuboids, ByteBuffer bags) {
+        this.channel = channel;
+        this.fingerprint = fingerprint;
+        this.cuboids = cuboids;
+        this.bags = bags;
+    }
+
+    /**
+     * Maps a snapshot file, checking its header.
+     *
+     * @param file - Snapshot file
+     * @return Snapshot, to be closed by the caller
+     * @throws IOException when the file cannot be read or is not a snapshot this version can read
+     */
+    static Snapshot open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < SnapshotWriter.HEADER_BYTES) {
+                throw new IOException("Snapshot is truncated: " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, SnapshotWriter.HEADER_BYTES);
+            if (header.getInt() != SnapshotWriter.MAGIC || header.getInt() != SnapshotWriter.FORMAT_VERSION) {
+                throw new IOException("Not a snapshot this version can read: " + file);
+            }
+            long bagCount = header.getLong();
+            long cuboidCount = header.getLong();
+            SnapshotFingerprint fingerprint = new SnapshotFingerprint(bagCount, cuboidCount, header.getLong(),
+                    header.getLong());
+
+            long cuboidsEnd = SnapshotWriter.HEADER_BYTES + cuboidCount * SnapshotWriter.CUBOID_BYTES;
+            if (cuboidsEnd > size) {
+                throw new IOException("Snapshot is truncated: " + file);
+            }
+            ByteBuffer cuboids = map(channel, SnapshotWriter.HEADER_BYTES, cuboidsEnd);
+            ByteBuffer bags = map(channel, cuboidsEnd, size);
+            return new Snapshot(channel, fingerprint, cuboids, bags);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    SnapshotFingerprint fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Streams every cuboid, ordered by ID. Each call reads the mapping afresh.
+     *
+     * @return Stream<CuboidDTO>
+     */
+    Stream<CuboidDTO> cuboids() {
+        ByteBuffer records = cuboids.duplicate();
+        Spliterator<CuboidDTO> spliterator = new Spliterators.AbstractSpliterator<>(
+                fingerprint.getCuboidCount(), Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super CuboidDTO> action) {
+                if (!records.hasRemaining()) {
+                    return false;
+                }
+                action.accept(readCuboid(records));
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Reads the bags in the snapshot with their cuboids, found with one pass over the cuboids.
+     *
+     * @return List<BagDTO> ordered by ID
+     */
+    List<BagDTO> bags() {
+        ByteBuffer records = bags.duplicate();
+        Map<Long, BagDTO> result = new LinkedHashMap<>();
+        while (records.hasRemaining()) {
+            BagDTO bag = readBag(records);
+            bag.setCuboids(new ArrayList<>());
+            result.put(bag.getId(), bag);
+        }
+        if (!result.isEmpty()) {
+            try (Stream<CuboidDTO> all = cuboids()) {
+                all.forEach(cuboid -> {
+                    BagDTO bag = result.get(cuboid.getBagId());
+                    if (bag != null) {
+                        bag.getCuboids().add(cuboid);
+                    }
+                });
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static ByteBuffer map(FileChannel channel, long from, long to) throws IOException {
+        if (to - from > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot section is too large to map: " + (to - from) + " bytes");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+    }
+
+    private static CuboidDTO readCuboid(ByteBuffer records) {
+        long id = records.getLong();
+        float width = records.getFloat();
+        float height = records.getFloat();
+        float depth = records.getFloat();
+        long bagId = records.getLong();
+        return CuboidDTO.builder()
+                .id(id)
+                .width(width)
+                .height(height)
+                .depth(depth)
+                .volume((double) width * height * depth)
+                .bagId(bagId)
+                .build();
+    }
+
+    private static BagDTO readBag(ByteBuffer records) {
+        long id = records.getLong();
+        double volume = records.getDouble();
+        double payloadVolume = records.getDouble();
+        byte[] title = new byte[records.getShort() & 0xFFFF];
+        records.get(title);
+        return BagDTO.builder()
+                .id(id)
+                .title(new String(title, StandardCharsets.UTF_8))
+                .volume(volume)
+                .payloadVolume(payloadVolume)
+                .availableVolume(volume - payloadVolume)
+                .build();
+    }
+
+}
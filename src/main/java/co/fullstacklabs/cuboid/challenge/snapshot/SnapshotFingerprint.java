@@ -0,0 +1,29 @@
+package co.fullstacklabs.cuboid.challenge.snapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * What a snapshot records about the database it was taken from: the number of bags and
+ * cuboids and the current value of both ID sequences. Inserts move a sequence and deletes
+ * change a count, so a database written after the snapshot was taken no longer matches it.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+final class SnapshotFingerprint {
+
+    private final long bagCount;
+    private final long cuboidCount;
+    private final long bagsSequence;
+    private final long cuboidsSequence;
+
+}
@@ -0,0 +1,217 @@
+package co.fullstacklabs.cuboid.challenge.snapshot;
+
+import co.fullstacklabs.cuboid.challenge.cache.BagCache;
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.index.CuboidIndexes;
+import co.fullstacklabs.cuboid.challenge.repository.BagRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Saves every cuboid, and the bags in the cache, to a memory-mapped snapshot file on
+ * graceful shutdown, and loads the in-memory indexes and the bag cache from it on the next
+ * startup instead of reading them back from the database.
+ *
+ * The snapshot is loaded before the web server starts and saved after it stops, so no
+ * request writes while either runs. It is only used when the database still matches the
+ * fingerprint it was saved with, and it is deleted once read: after a crash, the indexes
+ * are built from the database as usual. Enabled with cuboid.snapshot.enabled.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+
+@Component
+@ConditionalOnProperty(name = "cuboid.snapshot.enabled", havingValue = "true")
+public class SnapshotService implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotService.class);
+
+    /** The web server starts and stops in phase DEFAULT_PHASE - 1; this runs before it starts and after it stops. */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 2;
+
+    private static final int FETCH_SIZE = Integer.parseInt(BagRepository.STREAM_FETCH_SIZE);
+    private static final int BAG_CHUNK_SIZE = 1000;
+
+    private static final String SELECT_CUBOIDS =
+            "select ID, WIDTH, HEIGHT, DEPTH, BAG_ID from CUBOIDS order by ID";
+    private static final String SELECT_BAGS =
+            "select ID, TITLE, VOLUME, PAYLOAD_VOLUME from BAGS where ID in (:ids) order by ID";
+    private static final String COUNT_BAGS = "select count(*) from BAGS";
+    private static final String COUNT_CUBOIDS = "select count(*) from CUBOIDS";
+    private static final String SEQUENCE_VALUE =
+            "select CURRENT_VALUE from INFORMATION_SCHEMA.SEQUENCES where SEQUENCE_NAME = ?";
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate namedJdbc;
+    private final TransactionTemplate readOnlyTransaction;
+    private final CuboidIndexes indexes;
+    private final BagCache bagCache;
+    private final Path file;
+    private volatile boolean running;
+
+    @Autowired
+    public SnapshotService(JdbcTemplate jdbc, NamedParameterJdbcTemplate namedJdbc,
+                           PlatformTransactionManager transactionManager, CuboidIndexes indexes, BagCache bagCache,
+                           @Value("${cuboid.snapshot.path}") String path) {
+        this.jdbc = jdbc;
+        this.namedJdbc = namedJdbc;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.indexes = indexes;
+        this.bagCache = bagCache;
+        this.file = Paths.get(path);
+    }
+
+    @Override
+    public void start() {
+        load();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        save();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Loads the indexes and the bag cache from the snapshot file, if there is one that
+     * matches the database, then deletes it.
+     *
+     * @return whether the snapshot was loaded
+     */
+    public boolean load() {
+        if (!Files.exists(file)) {
+            LOGGER.info("No snapshot at {}, the indexes will be built from the database", file);
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean loaded = false;
+        try (Snapshot snapshot = Snapshot.open(file)) {
+            SnapshotFingerprint current = fingerprint();
+            if (snapshot.fingerprint().equals(current)) {
+                indexes.load(snapshot::cuboids);
+                List<BagDTO> bags = snapshot.bags();
+                bags.forEach(bagCache::warm);
+                loaded = true;
+                LOGGER.info("Loaded {} cuboids and {} cached bags from the snapshot in {} ms",
+                        current.getCuboidCount(), bags.size(), (System.nanoTime() - start) / 1_000_000);
+            } else {
+                LOGGER.warn("Snapshot {} does not match the database ({} vs {}), ignoring it",
+                        file, snapshot.fingerprint(), current);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Snapshot {} could not be loaded, ignoring it", file, e);
+        }
+        delete();
+        return loaded;
+    }
+
+    /**
+     * Writes every cuboid and the cached bags to the snapshot file, replacing any previous one.
+     *
+     * @return whether the snapshot was written
+     */
+    public boolean save() {
+        long start = System.nanoTime();
+        try (SnapshotWriter writer = new SnapshotWriter(file)) {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try {
+                    writeCuboids(writer);
+                    writeBags(writer);
+                    SnapshotFingerprint fingerprint = fingerprint();
+                    writer.finish(fingerprint.getBagCount(), fingerprint.getBagsSequence(),
+                            fingerprint.getCuboidsSequence());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            LOGGER.info("Saved {} cuboids and {} cached bags to the snapshot in {} ms",
+                    writer.cuboids(), writer.bags(), (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Snapshot {} could not be saved", file, e);
+            return false;
+        }
+    }
+
+    private void writeCuboids(SnapshotWriter writer) {
+        jdbc.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_CUBOIDS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> {
+            try {
+                writer.cuboid(resultSet.getLong("ID"), resultSet.getFloat("WIDTH"), resultSet.getFloat("HEIGHT"),
+                        resultSet.getFloat("DEPTH"), resultSet.getLong("BAG_ID"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void writeBags(SnapshotWriter writer) {
+        List<Long> ids = bagCache.cachedIds().stream().sorted().collect(Collectors.toList());
+        for (int from = 0; from < ids.size(); from += BAG_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BAG_CHUNK_SIZE, ids.size()));
+            namedJdbc.query(SELECT_BAGS, new MapSqlParameterSource("ids", chunk), (RowCallbackHandler) resultSet -> {
+                try {
+                    writer.bag(resultSet.getLong("ID"), resultSet.getString("TITLE"), resultSet.getDouble("VOLUME"),
+                            resultSet.getDouble("PAYLOAD_VOLUME"));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private SnapshotFingerprint fingerprint() {
+        return new SnapshotFingerprint(
+                jdbc.queryForObject(COUNT_BAGS, Long.class),
+                jdbc.queryForObject(COUNT_CUBOIDS, Long.class),
+                jdbc.queryForObject(SEQUENCE_VALUE, Long.class, "BAGS_SEQ"),
+                jdbc.queryForObject(SEQUENCE_VALUE, Long.class, "CUBOIDS_SEQ"));
+    }
+
+    private void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Snapshot {} could not be deleted", file, e);
+        }
+    }
+
+}
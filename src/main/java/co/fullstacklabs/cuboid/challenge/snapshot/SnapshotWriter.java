@@ -0,0 +1,122 @@
+package co.fullstacklabs.cuboid.challenge.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a snapshot file: a fixed-size header, then every cuboid as a fixed-size record
+ * ordered by ID, then the bags to warm the cache with, ordered by ID.
+ *
+ * The file is written next to its final location and moved over it once complete, so a
+ * failed write never leaves a truncated snapshot behind.
+ *
+ * @author FullStack Labs
+ * @version 1.0
+ * @since 2021-10-22
+ */
+final class SnapshotWriter implements Closeable {
+
+    static final int MAGIC = 0x43554253;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 2 * Integer.BYTES + 4 * Long.BYTES;
+    static final int CUBOID_BYTES = 2 * Long.BYTES + 3 * Float.BYTES;
+
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final Path file;
+    private final Path partial;
+    private final FileChannel channel;
+    private final DataOutputStream output;
+    private long cuboids;
+    private long bags;
+    private boolean finished;
+
+    SnapshotWriter(Path file) throws IOException {
+        this.file = file;
+        this.partial = file.resolveSibling(file.getFileName() + ".partial");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.output = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES));
+        output.write(new byte[HEADER_BYTES]);
+    }
+
+    /**
+     * Appends a cuboid. All cuboids must be written before the first bag, in ID order.
+     */
+    void cuboid(long id, float width, float height, float depth, long bagId) throws IOException {
+        if (bags > 0) {
+            throw new IllegalStateException("Cuboids must be written before bags.");
+        }
+        output.writeLong(id);
+        output.writeFloat(width);
+        output.writeFloat(height);
+        output.writeFloat(depth);
+        output.writeLong(bagId);
+        cuboids++;
+    }
+
+    /**
+     * Appends a bag, in ID order.
+     */
+    void bag(long id, String title, double volume, double payloadVolume) throws IOException {
+        byte[] titleBytes = title.getBytes(StandardCharsets.UTF_8);
+        output.writeLong(id);
+        output.writeDouble(volume);
+        output.writeDouble(payloadVolume);
+        output.writeShort(titleBytes.length);
+        output.write(titleBytes);
+        bags++;
+    }
+
+    /**
+     * Fills in the header, flushes the file to disk and moves it into place.
+     *
+     * @param bagCount - Number of bags in the database
+     * @param bagsSequence - Current value of the bag ID sequence
+     * @param cuboidsSequence - Current value of the cuboid ID sequence
+     */
+    void finish(long bagCount, long bagsSequence, long cuboidsSequence) throws IOException {
+        output.flush();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(bagCount)
+                .putLong(cuboids)
+                .putLong(bagsSequence)
+                .putLong(cuboidsSequence)
+                .flip();
+        channel.write(header, 0);
+        channel.force(true);
+        output.close();
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    long cuboids() {
+        return cuboids;
+    }
+
+    long bags() {
+        return bags;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            output.close();
+            Files.deleteIfExists(partial);
+        }
+    }
+
+}
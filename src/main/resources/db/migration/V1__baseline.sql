@@ -0,0 +1,25 @@
+create sequence if not exists hibernate_sequence start with 1 increment by 1;
+
+create table "BAGS" (
+    "ID" bigint not null,
+    "VOLUME" double not null,
+    "TITLE" varchar(100) not null,
+    "PAYLOAD_VOLUME" double default 0 not null,
+    "VERSION" bigint default 0 not null,
+    primary key ("ID")
+);
+
+create table "CUBOIDS" (
+    "ID" bigint not null,
+    "DEPTH" float not null,
+    "HEIGHT" float not null,
+    "WIDTH" float not null,
+    "BAG_ID" bigint not null,
+    "VOLUME" double as (cast("WIDTH" as double) * "HEIGHT" * "DEPTH"),
+    primary key ("ID")
+);
+
+alter table "CUBOIDS" add constraint "FKgwdq976r5nwtgf7smd9beq1ix" foreign key ("BAG_ID") references "BAGS";
+
+create index "IDX_CUBOIDS_BAG_VOLUME" on "CUBOIDS" ("BAG_ID", "VOLUME");
+create index "IDX_CUBOIDS_VOLUME" on "CUBOIDS" ("VOLUME");
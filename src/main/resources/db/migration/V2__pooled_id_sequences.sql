@@ -0,0 +1,7 @@
+create sequence "BAGS_SEQ" start with 1 increment by ${idAllocationSize};
+create sequence "CUBOIDS_SEQ" start with 1 increment by ${idAllocationSize};
+
+alter sequence "BAGS_SEQ" restart with (select coalesce(max("ID"), 0) + 1 from "BAGS");
+alter sequence "CUBOIDS_SEQ" restart with (select coalesce(max("ID"), 0) + 1 from "CUBOIDS");
+
+drop sequence hibernate_sequence;
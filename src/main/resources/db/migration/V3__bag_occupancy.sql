@@ -0,0 +1,13 @@
+-- Cuboid count and payload of every bag holding cuboids, kept up to date from cuboid events
+-- so summaries read them instead of aggregating the cuboids table.
+create table "BAG_OCCUPANCY" (
+    "BAG_ID" bigint not null,
+    "CUBOID_COUNT" bigint default 0 not null,
+    "PAYLOAD_VOLUME" double default 0 not null,
+    primary key ("BAG_ID")
+);
+
+alter table "BAG_OCCUPANCY" add constraint "FK_BAG_OCCUPANCY_BAG" foreign key ("BAG_ID") references "BAGS";
+
+insert into "BAG_OCCUPANCY" ("BAG_ID", "CUBOID_COUNT", "PAYLOAD_VOLUME")
+select "BAG_ID", count(*), sum("VOLUME") from "CUBOIDS" group by "BAG_ID";
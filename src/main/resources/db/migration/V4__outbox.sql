@@ -0,0 +1,23 @@
+-- Changes written in the same transaction as the bag and cuboid writes that made them.
+-- POSITION is assigned by the outbox poller once the row is committed, in the order the
+-- poller sees them, and is the cursor of the change feed.
+create table "OUTBOX" (
+    "ID" bigint generated by default as identity,
+    "POSITION" bigint,
+    "EVENT_TYPE" varchar(50) not null,
+    "PAYLOAD" clob not null,
+    "CREATED_AT" timestamp not null,
+    primary key ("ID")
+);
+
+create index "IDX_OUTBOX_POSITION" on "OUTBOX" ("POSITION", "ID");
+
+-- Last position handed out. The poller locks this row while it assigns positions, so
+-- pollers sharing the database never interleave.
+create table "OUTBOX_CURSOR" (
+    "ID" int not null,
+    "POSITION" bigint not null,
+    primary key ("ID")
+);
+
+insert into "OUTBOX_CURSOR" ("ID", "POSITION") values (1, 0);
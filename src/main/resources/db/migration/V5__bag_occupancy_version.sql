@@ -0,0 +1,3 @@
+-- Bumped on every change to a row, under its lock, so the in-memory copy can tell which of
+-- two committed values of a bag is the newer one.
+alter table "BAG_OCCUPANCY" add column "VERSION" bigint default 0 not null;
@@ -0,0 +1,4 @@
+-- Keeps the ID sequences incrementing by the configured allocation size, which the pooled-lo
+-- optimizer relies on. H2 hands out the next value it already holds, so no block is reused.
+alter sequence "BAGS_SEQ" increment by ${idAllocationSize};
+alter sequence "CUBOIDS_SEQ" increment by ${idAllocationSize};
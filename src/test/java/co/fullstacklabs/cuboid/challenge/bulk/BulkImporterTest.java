@@ -0,0 +1,115 @@
+package co.fullstacklabs.cuboid.challenge.bulk;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.ImportReportDTO;
+import co.fullstacklabs.cuboid.challenge.exception.ErrorDetails;
+import co.fullstacklabs.cuboid.challenge.index.CuboidIndexes;
+import co.fullstacklabs.cuboid.challenge.service.BagService;
+import co.fullstacklabs.cuboid.challenge.service.CuboidService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "cuboid.import.batch-size=2")
+class BulkImporterTest {
+
+    @Autowired
+    private BulkImporter importer;
+    @Autowired
+    private BagService bagService;
+    @Autowired
+    private CuboidService cuboidService;
+    @Autowired
+    private ImportBatchWriter writer;
+    @SpyBean
+    private CuboidIndexes indexes;
+
+    @Test
+    void importsCsvCheckingCapacityAcrossBatches() {
+        String csv = "type,key,title,volume,width,height,depth,bagKey,bagId\n"
+                + "bag,csv-1,\"Imported, CSV\",10,,,,,\n"
+                + "cuboid,,,,2,2,2,csv-1,\n"
+                + "\n"
+                + "cuboid,,,,1,1,3,csv-1,\n"
+                + "cuboid,,,,1,1,2,csv-1,\n"
+                + "cuboid,,,,1,1,1,,404\n"
+                + "cuboid,,,,-1,1,1,csv-1,\n";
+
+        ImportReportDTO report = importer.importFrom(stream(csv), ImportFormat.CSV);
+
+        assertEquals(1, report.getBagsImported());
+        assertEquals(2, report.getCuboidsImported());
+        assertEquals(3, report.getRowsRejected());
+        assertEquals(List.of("line 5: Bag capacity is not enough!", "line 7: Object Bag not found!",
+                "line 8: Cuboid width must be positive."), describe(report.getErrors()));
+
+        BagDTO bag = bagService.getAll().stream()
+                .filter(candidate -> "Imported, CSV".equals(candidate.getTitle()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(10d, bag.getPayloadVolume());
+        assertEquals(2, bag.getCuboids().size());
+    }
+
+    @Test
+    void importsNdjsonIntoExistingBags() {
+        BagDTO before = bagService.findById(3L);
+        String ndjson = "{\"type\":\"cuboid\",\"width\":1,\"height\":1,\"depth\":1,\"bagId\":3}\n"
+                + "{\"type\":\"cuboid\",\"width\":1,\"height\":1,\"depth\":1}\n"
+                + "not json\n";
+
+        ImportReportDTO report = importer.importFrom(stream(ndjson), ImportFormat.NDJSON);
+
+        assertEquals(1, report.getCuboidsImported());
+        assertEquals(2, report.getRowsRejected());
+        assertEquals(before.getPayloadVolume() + 1d, bagService.findById(3L).getPayloadVolume());
+        assertTrue(cuboidService.findFitting(1f, 1f, 1f, 1000).stream()
+                .map(CuboidDTO::getBagId)
+                .anyMatch(bagId -> bagId == 3L));
+    }
+
+    @Test
+    void failedBatchKeepsRowErrorsAndHidesTheCause() {
+        BagDTO before = bagService.findById(3L);
+        Mockito.doThrow(new DataIntegrityViolationException("insert into CUBOIDS failed"))
+                .when(indexes).putAll(ArgumentMatchers.argThat(cuboids -> cuboids != null
+                        && cuboids.stream().anyMatch(cuboid -> cuboid.getWidth() == 7f)));
+        List<ImportRow> batch = List.of(
+                ImportRow.parse(2, Map.of("type", "cuboid", "width", "-1", "height", "1", "depth", "1", "bagid", "3")),
+                ImportRow.parse(3, Map.of("type", "cuboid", "width", "7", "height", "1", "depth", "1", "bagid", "3")));
+        ImportReport report = new ImportReport();
+
+        writer.write(batch, new HashMap<>(), report);
+
+        ImportReportDTO result = report.toDTO();
+        assertEquals(0, result.getCuboidsImported());
+        assertEquals(List.of("line 2: Cuboid width must be positive.", "line 3: " + ImportBatchWriter.BATCH_FAILED),
+                describe(result.getErrors()));
+        assertEquals(before.getPayloadVolume(), bagService.findById(3L).getPayloadVolume());
+    }
+
+    private static List<String> describe(List<ErrorDetails> errors) {
+        return errors.stream()
+                .map(error -> error.getDetails() + ": " + error.getMessage())
+                .collect(Collectors.toList());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,79 @@
+package co.fullstacklabs.cuboid.challenge.cache;
+
+import co.fullstacklabs.cuboid.challenge.CacheConfig;
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.service.BagService;
+import co.fullstacklabs.cuboid.challenge.service.CuboidService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest
+class BagCacheTest {
+
+    @Autowired
+    private BagService bagService;
+    @Autowired
+    private CuboidService cuboidService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private BagCache bagCache;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void findByIdIsCachedUntilACuboidOfTheBagChanges() {
+        Cache bags = cacheManager.getCache(CacheConfig.BAGS_CACHE);
+        bags.clear();
+
+        BagDTO bag = bagService.findById(3L);
+        assertSame(bag, bagService.findById(3L));
+        assertNotNull(bags.get(3L));
+
+        CuboidDTO cuboid = cuboidService.create(CuboidDTO.builder()
+                .width(1f).height(1f).depth(1f).volume(1d).bagId(3L).build());
+        assertNull(bags.get(3L));
+        assertEquals(bag.getPayloadVolume() + 1d, bagService.findById(3L).getPayloadVolume());
+
+        cuboidService.delete(cuboid.getId());
+        assertNull(bags.get(3L));
+        assertEquals(bag.getPayloadVolume(), bagService.findById(3L).getPayloadVolume());
+    }
+
+    @Test
+    void readThatLoadedBeforeAnEvictionDoesNotStayCached() {
+        Cache bags = cacheManager.getCache(CacheConfig.BAGS_CACHE);
+        bags.clear();
+        BagDTO stale = bagService.findById(2L);
+        bags.clear();
+
+        BagDTO read = bagCache.get(2L, id -> {
+            bagCache.evict(id);
+            return stale;
+        });
+
+        assertSame(stale, read);
+        assertNull(bags.get(2L));
+        assertNotNull(bagCache.get(2L, id -> stale));
+    }
+
+    @Test
+    void cacheStatisticsAreExported() {
+        bagService.findById(1L);
+        bagService.findById(1L);
+
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", CacheConfig.BAGS_CACHE).tag("result", "hit").functionCounter());
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", CacheConfig.BAGS_CACHE).tag("result", "miss").functionCounter());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", CacheConfig.BAGS_CACHE).functionCounter());
+    }
+}
@@ -0,0 +1,106 @@
+package co.fullstacklabs.cuboid.challenge.concurrency;
+
+import co.fullstacklabs.cuboid.challenge.model.Bag;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import testbuilders.BagTestBuilder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BagCapacityLedgerTest {
+
+    private final BagCapacityLedger ledger = new BagCapacityLedger();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void unknownBagIsNeverRejected() {
+        assertFalse(ledger.rejects(1L, Double.MAX_VALUE));
+    }
+
+    @Test
+    void rejectsOnceReservationsUseTheBag() {
+        Bag bag = BagTestBuilder.builder().id(1L).volume(50d).build();
+        bag.setPayloadVolume(20d);
+        ledger.track(bag);
+
+        assertFalse(ledger.rejects(1L, 30d));
+        ledger.reserve(1L, 25d);
+        assertTrue(ledger.rejects(1L, 6d));
+        ledger.release(1L, 25d);
+        assertFalse(ledger.rejects(1L, 30d));
+    }
+
+    @Test
+    void reservationIsGivenBackOnRollback() {
+        ledger.track(BagTestBuilder.builder().id(1L).volume(10d).build());
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.reserve(1L, 10d);
+        assertTrue(ledger.rejects(1L, 1d));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertFalse(ledger.rejects(1L, 10d));
+    }
+
+    @Test
+    void releaseOnlyAppliesAfterCommit() {
+        Bag bag = BagTestBuilder.builder().id(1L).volume(10d).build();
+        bag.setPayloadVolume(10d);
+        ledger.track(bag);
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.release(1L, 4d);
+        assertTrue(ledger.rejects(1L, 4d));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertFalse(ledger.rejects(1L, 4d));
+    }
+
+    @Test
+    void resetForgetsBagsAfterCommit() {
+        ledger.track(BagTestBuilder.builder().id(1L).volume(0d).build());
+        TransactionSynchronizationManager.initSynchronization();
+
+        ledger.reset();
+        assertTrue(ledger.rejects(1L, 1d));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertFalse(ledger.rejects(1L, 1d));
+    }
+
+    @Test
+    void concurrentReservationsAreNotLost() {
+        ledger.track(BagTestBuilder.builder().id(1L).volume(1000d).build());
+
+        List<CompletableFuture<Void>> futures = IntStream.range(0, 1000)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> ledger.reserve(1L, 1d)))
+                .collect(Collectors.toList());
+        futures.forEach(CompletableFuture::join);
+
+        assertTrue(ledger.rejects(1L, 0.5d));
+        assertFalse(ledger.rejects(1L, 0d));
+    }
+
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
@@ -0,0 +1,49 @@
+package co.fullstacklabs.cuboid.challenge.concurrency;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.exception.UnprocessableEntityException;
+import co.fullstacklabs.cuboid.challenge.metrics.CapacityMetrics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+@ExtendWith(MockitoExtension.class)
+class CapacityPrecheckTest {
+
+    @InjectMocks
+    private CapacityPrecheck precheck;
+    @Mock
+    private BagCapacityLedger ledger;
+    @Mock
+    private CapacityMetrics capacityMetrics;
+
+    @Test
+    void rejectsWhatTheLedgerKnowsCannotFit() {
+        CuboidDTO cuboidDTO = CuboidDTO.builder().width(2f).height(3f).depth(4f).bagId(1L).build();
+        Mockito.when(ledger.rejects(1L, 24d)).thenReturn(true);
+
+        Assertions.assertThrows(UnprocessableEntityException.class, () -> precheck.check(cuboidDTO));
+        Mockito.verify(capacityMetrics).rejected(CapacityMetrics.LEDGER_CHECK);
+    }
+
+    @Test
+    void checksTheBatchVolumePerBag() {
+        List<CuboidDTO> cuboidDTOs = List.of(
+                CuboidDTO.builder().width(2f).height(3f).depth(4f).bagId(1L).build(),
+                CuboidDTO.builder().width(1f).height(1f).depth(6f).bagId(1L).build(),
+                CuboidDTO.builder().width(1f).height(1f).depth(1f).bagId(2L).build());
+
+        precheck.checkAll(cuboidDTOs);
+
+        Mockito.verify(ledger).rejects(1L, 30d);
+        Mockito.verify(ledger).rejects(2L, 1d);
+        Mockito.verifyNoInteractions(capacityMetrics);
+    }
+
+}
@@ -0,0 +1,56 @@
+package co.fullstacklabs.cuboid.challenge.concurrency;
+
+import co.fullstacklabs.cuboid.challenge.exception.ConflictException;
+import co.fullstacklabs.cuboid.challenge.model.Bag;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticLockRetryAspectTest {
+
+    @Mock
+    private ProceedingJoinPoint joinPoint;
+
+    @Test
+    void retriesUntilSuccess() throws Throwable {
+        OptimisticLockRetryAspect aspect = new OptimisticLockRetryAspect(3, 0);
+        Mockito.when(joinPoint.proceed())
+                .thenThrow(new ObjectOptimisticLockingFailureException(Bag.class, 1L))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Bag.class, 1L))
+                .thenReturn("done");
+
+        assertEquals("done", aspect.retry(joinPoint));
+        Mockito.verify(joinPoint, Mockito.times(3)).proceed();
+        assertEquals(2, aspect.getConflictCount());
+        assertEquals(2, aspect.getRetryCount());
+    }
+
+    @Test
+    void throwsConflictWhenRetriesAreExhausted() throws Throwable {
+        OptimisticLockRetryAspect aspect = new OptimisticLockRetryAspect(2, 1);
+        Mockito.when(joinPoint.proceed()).thenThrow(new ObjectOptimisticLockingFailureException(Bag.class, 1L));
+
+        Assertions.assertThrows(ConflictException.class, () -> aspect.retry(joinPoint));
+        Mockito.verify(joinPoint, Mockito.times(3)).proceed();
+        assertEquals(3, aspect.getConflictCount());
+        assertEquals(2, aspect.getRetryCount());
+    }
+
+    @Test
+    void doesNotRetryOtherFailures() throws Throwable {
+        OptimisticLockRetryAspect aspect = new OptimisticLockRetryAspect(2, 0);
+        Mockito.when(joinPoint.proceed()).thenThrow(new IllegalStateException());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> aspect.retry(joinPoint));
+        Mockito.verify(joinPoint).proceed();
+        assertEquals(0, aspect.getConflictCount());
+    }
+}
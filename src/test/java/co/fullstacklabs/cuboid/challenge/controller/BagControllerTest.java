@@ -4,15 +4,23 @@ import co.fullstacklabs.cuboid.challenge.ApplicationConfig;
 import co.fullstacklabs.cuboid.challenge.dto.NewBagDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
 import org.hamcrest.core.Is;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -38,6 +46,107 @@ class BagControllerTest {
                 .andExpect(jsonPath("$[1].volume", Is.is(30.0)));
     }
 
+    @Test
+    void shouldFetchBagsPageAfterCursor() throws Exception {
+        this.mockMvc.perform(get(BAG_PATH).param("after", "1").param("limit", "1")).andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", Is.is(1)))
+                .andExpect(jsonPath("$[0].id", Is.is(2)))
+                .andExpect(jsonPath("$[0].title", Is.is("Title 2")));
+    }
+
+    @Test
+    void invalidPageLimitShouldReturnError() throws Exception {
+        this.mockMvc.perform(get(BAG_PATH).param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldFetchBagSummaries() throws Exception {
+        this.mockMvc.perform(get(BAG_PATH + "/summary")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].title", Is.is("Title 1")))
+                .andExpect(jsonPath("$[0].cuboids").doesNotExist())
+                .andExpect(jsonPath("$[0].cuboidCount").isNumber());
+    }
+
+    @Test
+    void shouldFetchBagOccupancies() throws Exception {
+        this.mockMvc.perform(get(BAG_PATH + "/occupancy")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bagId", Is.is(1)))
+                .andExpect(jsonPath("$[0].cuboidCount").isNumber())
+                .andExpect(jsonPath("$[0].payloadVolume").isNumber());
+    }
+
+    @Test
+    void shouldFetchBagOccupancy() throws Exception {
+        this.mockMvc.perform(get(BAG_PATH + "/2/occupancy")).andExpect(status().isOk())
+                .andExpect(jsonPath("$.bagId", Is.is(2)))
+                .andExpect(jsonPath("$.cuboidCount").isNumber());
+    }
+
+    @Test
+    void occupancyOfUnknownBagShouldReturnNotFound() throws Exception {
+        this.mockMvc.perform(get(BAG_PATH + "/9999/occupancy")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldStreamAllBags() throws Exception {
+        MvcResult result = this.mockMvc.perform(get(BAG_PATH + "/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].title", Is.is("Title 1")))
+                .andExpect(jsonPath("$[1].title", Is.is("Title 2")));
+    }
+
+    @Test
+    void shouldExportBagsWithTheirCuboidsAsNdjson() throws Exception {
+        MvcResult result = this.mockMvc.perform(get(BAG_PATH + "/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = this.mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        Assertions.assertThat(body.split("\n"))
+                .anySatisfy(line -> Assertions.assertThat(line)
+                        .startsWith("{\"id\":3,\"volume\":100.0,\"title\":\"Title 3\"")
+                        .contains("{\"id\":3,\"width\":3.0,\"height\":3.0,\"depth\":3.0,\"volume\":27.0,\"bagId\":3}"));
+    }
+
+    @Test
+    void shouldExportBagsAsGzippedCsv() throws Exception {
+        MvcResult result = this.mockMvc.perform(get(BAG_PATH + "/export").param("format", "CSV")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        byte[] body = this.mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String csv;
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            csv = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Assertions.assertThat(csv)
+                .startsWith("type,key,title,volume,width,height,depth,bagKey\n")
+                .contains("bag,3,Title 3,100.0,,,,\n")
+                .contains("cuboid,,,,3.0,3.0,3.0,3\n");
+    }
+
+    @Test
+    void shouldNotGzipTheExportWhenGzipIsRefused() throws Exception {
+        MvcResult result = this.mockMvc.perform(get(BAG_PATH + "/export").param("format", "CSV")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(Matchers.startsWith("type,key,title")));
+    }
+
     @Test
     void shouldFetchOneBagById() throws Exception {
         long id = 1L;
@@ -63,6 +172,23 @@ class BagControllerTest {
                 .andExpect(jsonPath("$.title", Is.is(resource.getTitle())));
     }
 
+    @Test
+    void shouldReportUtilizationFromCuboids() throws Exception {
+        this.mockMvc.perform(get(BAG_PATH + "/utilization")).andExpect(status().isOk())
+                .andExpect(jsonPath("$.bagCount").isNumber())
+                .andExpect(jsonPath("$.fillRatioPercentiles.p50").isNumber())
+                .andExpect(jsonPath("$.bags[?(@.bagId == 2)].payloadVolume", Matchers.contains(32.0)))
+                .andExpect(jsonPath("$.overfilledBags[*].bagId", Matchers.hasItem(2)));
+    }
+
+    @Test
+    void shouldLeaveBagsOutOfUtilizationOnRequest() throws Exception {
+        this.mockMvc.perform(get(BAG_PATH + "/utilization").param("includeBags", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bags").doesNotExist())
+                .andExpect(jsonPath("$.overfilledBags").isArray());
+    }
+
     @Test
     void invalidInputShouldReturnError() throws Exception {
         NewBagDTO resource = NewBagDTO.builder().build();
@@ -0,0 +1,64 @@
+package co.fullstacklabs.cuboid.challenge.controller;
+
+import co.fullstacklabs.cuboid.challenge.outbox.OutboxPoller;
+import co.fullstacklabs.cuboid.challenge.service.BagService;
+import co.fullstacklabs.cuboid.challenge.dto.NewBagDTO;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.Is;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ChangeControllerTest {
+    private static final String CHANGES_PATH = "/changes";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private OutboxPoller poller;
+    @Autowired
+    private BagService bagService;
+
+    @Test
+    void shouldFetchChangesAfterCursor() throws Exception {
+        bagService.create(NewBagDTO.builder().title("Change feed").volume(10d).build());
+        poller.publish();
+
+        MvcResult result = this.mockMvc.perform(get(CHANGES_PATH).param("since", "0").param("limit", "1000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].position").isNumber())
+                .andExpect(jsonPath("$.changes[*].type", Matchers.hasItem("BagCreated")))
+                .andExpect(jsonPath("$.changes[*].payload.bag.title", Matchers.hasItem("Change feed")))
+                .andExpect(jsonPath("$.next", Matchers.greaterThan(0)));
+    }
+
+    @Test
+    void shouldReturnNoChangesWhenNoneCameInTime() throws Exception {
+        MvcResult result = this.mockMvc.perform(get(CHANGES_PATH).param("since", String.valueOf(Long.MAX_VALUE - 1))
+                        .param("waitMillis", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes.length()", Is.is(0)))
+                .andExpect(jsonPath("$.next", Is.is(Long.MAX_VALUE - 1)));
+    }
+
+    @Test
+    void invalidWaitShouldReturnError() throws Exception {
+        this.mockMvc.perform(get(CHANGES_PATH).param("waitMillis", "60000"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -4,9 +4,11 @@ import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.assertj.core.api.Assertions;
+import org.hamcrest.core.Is;
 import org.hamcrest.core.IsNot;
 import org.hamcrest.core.IsNull;
 import org.junit.jupiter.api.Test;
@@ -15,8 +17,11 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import co.fullstacklabs.cuboid.challenge.ApplicationConfig;
 import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.NewCuboidDTO;
+import java.util.List;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -128,6 +133,111 @@ class CuboidControllerTest {
                 .andExpect(result -> Assertions.assertThat(result.getResponse().getContentAsString()).contains("Object Cuboid not found!"));
     }
     
+    @Test
+    void shouldCreateCuboidsInBatch() throws Exception {
+        List<CuboidDTO> cuboidDTOs = List.of(
+                CuboidDTO.builder().width(1f).height(1f).depth(1f).volume(1d).bagId(3L).build(),
+                CuboidDTO.builder().width(1f).height(2f).depth(1f).volume(2d).bagId(3L).build());
+
+        this.mockMvc.perform(post(PATH + "/batch").contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cuboidDTOs)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.length()", Is.is(2)))
+                .andExpect(jsonPath("$[0].id", IsNot.not(IsNull.nullValue())));
+    }
+
+    @Test
+    void shouldGetErrorCreatingBatchWhenBagCantProcessAllCuboids() throws Exception {
+        List<CuboidDTO> cuboidDTOs = List.of(
+                CuboidDTO.builder().width(10f).height(5f).depth(1f).volume(50d).bagId(3L).build(),
+                CuboidDTO.builder().width(10f).height(5f).depth(1f).volume(50d).bagId(3L).build());
+
+        this.mockMvc.perform(post(PATH + "/batch").contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cuboidDTOs)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void invalidInputInBatchShouldReturnError() throws Exception {
+        this.mockMvc.perform(post(PATH + "/batch").contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(CuboidDTO.builder().build()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.violations", IsNot.not(IsNull.nullValue())));
+    }
+
+    @Test
+    void shouldPackCuboidsIntoBags() throws Exception {
+        List<NewCuboidDTO> cuboidDTOs = List.of(NewCuboidDTO.builder().width(1f).height(1f).depth(1f).build());
+
+        this.mockMvc.perform(post(PATH + "/pack").param("strategy", "FIRST_FIT_DECREASING")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cuboidDTOs)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].bagId", IsNot.not(IsNull.nullValue())));
+    }
+
+    @Test
+    void shouldGetErrorPackingWhenNoBagHasCapacity() throws Exception {
+        List<NewCuboidDTO> cuboidDTOs = List.of(NewCuboidDTO.builder().width(100f).height(100f).depth(100f).build());
+
+        this.mockMvc.perform(post(PATH + "/pack")
+                        .contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cuboidDTOs)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void shouldFetchCuboidsPageAfterCursor() throws Exception {
+        this.mockMvc.perform(get(PATH).param("after", "2").param("limit", "1")).andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", Is.is(1)))
+                .andExpect(result -> Assertions.assertThat(result.getResponse().getContentAsString())
+                        .contains("\"id\":3,\"width\":3.0,\"height\":3.0,\"depth\":3.0,\"volume\":27.0,\"bagId\":3"));
+    }
+
+    @Test
+    void shouldStreamAllCuboids() throws Exception {
+        MvcResult result = this.mockMvc.perform(get(PATH + "/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(content().contentType(APPLICATION_JSON))
+                .andExpect(dispatched -> Assertions.assertThat(dispatched.getResponse().getContentAsString())
+                        .startsWith("[")
+                        .contains("\"id\":3,\"width\":3.0,\"height\":3.0,\"depth\":3.0,\"volume\":27.0,\"bagId\":3"));
+    }
+
+    @Test
+    void shouldSearchCuboidsByBagAndVolumeRange() throws Exception {
+        this.mockMvc.perform(get(PATH + "/search").param("bagId", "3").param("minVolume", "27")
+                        .param("maxVolume", "27").param("sort", "ID").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", Is.is(1)))
+                .andExpect(result -> Assertions.assertThat(result.getResponse().getContentAsString())
+                        .contains("\"id\":3,\"width\":3.0,\"height\":3.0,\"depth\":3.0,\"volume\":27.0,\"bagId\":3"));
+    }
+
+    @Test
+    void invalidSearchLimitShouldReturnError() throws Exception {
+        this.mockMvc.perform(get(PATH + "/search").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.violations[0].details", Is.is("limit")));
+    }
+
+    @Test
+    void shouldFindCuboidsFittingWithinBoundsInAnyOrientation() throws Exception {
+        this.mockMvc.perform(get(PATH + "/fitting").param("width", "3").param("height", "30").param("depth", "3"))
+                .andExpect(status().isOk())
+                .andExpect(result -> Assertions.assertThat(result.getResponse().getContentAsString())
+                        .contains("\"id\":3,\"width\":3.0,\"height\":3.0,\"depth\":3.0,\"volume\":27.0,\"bagId\":3"));
+    }
+
+    @Test
+    void invalidBoundsInFittingShouldReturnError() throws Exception {
+        this.mockMvc.perform(get(PATH + "/fitting").param("width", "0").param("height", "1").param("depth", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
     /************************************************************
      *                                                           *
      * DO NOT change the tests BELOW, implement the test ABOVE   *
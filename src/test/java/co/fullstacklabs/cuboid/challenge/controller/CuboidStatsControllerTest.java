@@ -0,0 +1,68 @@
+package co.fullstacklabs.cuboid.challenge.controller;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.Is;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "cuboid.column-store.enabled=true")
+@AutoConfigureMockMvc
+class CuboidStatsControllerTest {
+    private static final String PATH = "/cuboids/stats";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldSumVolumesByBag() throws Exception {
+        this.mockMvc.perform(get(PATH + "/volume-by-bag")).andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.bagId == 2)].cuboidCount", Matchers.contains(1)))
+                .andExpect(jsonPath("$[?(@.bagId == 2)].totalVolume", Matchers.contains(32.0)));
+    }
+
+    @Test
+    void shouldCountVolumesInBuckets() throws Exception {
+        this.mockMvc.perform(get(PATH + "/volume-histogram").param("buckets", "3").param("bagId", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", Is.is(3)))
+                .andExpect(jsonPath("$[0].minVolume", Is.is(32.0)))
+                .andExpect(jsonPath("$[0].count", Is.is(1)));
+    }
+
+    @Test
+    void shouldFindTheLargestCuboidsIncludingNewOnes() throws Exception {
+        CuboidDTO cuboid = CuboidDTO.builder().width(0.5f).height(0.5f).depth(0.5f).volume(0.125d).bagId(3L).build();
+        String created = this.mockMvc.perform(post("/cuboids").contentType(APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cuboid)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readValue(created, CuboidDTO.class).getId();
+
+        this.mockMvc.perform(get(PATH + "/largest").param("bagId", "3").param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id", Matchers.hasItem((int) id)));
+        this.mockMvc.perform(get(PATH + "/largest").param("bagId", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()", Is.is(1)))
+                .andExpect(jsonPath("$[0].id", Is.is(2)));
+    }
+
+    @Test
+    void invalidLimitShouldReturnBadRequest() throws Exception {
+        this.mockMvc.perform(get(PATH + "/largest").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,51 @@
+package co.fullstacklabs.cuboid.challenge.controller;
+
+import org.hamcrest.core.Is;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ImportControllerTest {
+
+    private static final String PATH = "/import";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldImportCsvBody() throws Exception {
+        String csv = "type,key,title,volume,width,height,depth,bagKey\n"
+                + "bag,http-1,Imported over HTTP,50,,,,\n"
+                + "cuboid,,,,2,3,4,http-1\n"
+                + "cuboid,,,,,3,4,http-1\n";
+
+        this.mockMvc.perform(post(PATH).contentType(ImportController.TEXT_CSV_VALUE).content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bagsImported", Is.is(1)))
+                .andExpect(jsonPath("$.cuboidsImported", Is.is(1)))
+                .andExpect(jsonPath("$.rowsRejected", Is.is(1)))
+                .andExpect(jsonPath("$.errors[0].message", Is.is("Cuboid width can't be null.")))
+                .andExpect(jsonPath("$.errors[0].details", Is.is("line 4")));
+    }
+
+    @Test
+    void shouldImportNdjsonBody() throws Exception {
+        String ndjson = "{\"type\":\"bag\",\"key\":\"http-2\",\"title\":\"Imported NDJSON\",\"volume\":8}\n"
+                + "{\"type\":\"cuboid\",\"width\":2,\"height\":2,\"depth\":2,\"bagKey\":\"http-2\"}\n";
+
+        this.mockMvc.perform(post(PATH).contentType(MediaType.APPLICATION_NDJSON).content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bagsImported", Is.is(1)))
+                .andExpect(jsonPath("$.cuboidsImported", Is.is(1)))
+                .andExpect(jsonPath("$.rowsRejected", Is.is(0)));
+    }
+}
@@ -0,0 +1,68 @@
+package co.fullstacklabs.cuboid.challenge.controller;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "cuboid.reactive.enabled=true")
+@AutoConfigureMockMvc
+class ReactiveCuboidControllerTest {
+    private static final String CUBOID_PATH = "/cuboids";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldStreamCuboidsAsNdjson() throws Exception {
+        MvcResult result = this.mockMvc.perform(get(CUBOID_PATH).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(Matchers.containsString(
+                        "{\"id\":3,\"width\":3.0,\"height\":3.0,\"depth\":3.0,\"volume\":27.0,\"bagId\":3}\n")));
+    }
+
+    @Test
+    void shouldCreateCuboidsAcceptingNdjson() throws Exception {
+        MvcResult result = this.mockMvc.perform(post(CUBOID_PATH).accept(MediaType.APPLICATION_NDJSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"width\":1.0,\"height\":1.0,\"depth\":2.0,\"volume\":2.0,\"bagId\":3}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String created = this.mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(Matchers.containsString("\"volume\":2.0,\"bagId\":3}\n")))
+                .andReturn().getResponse().getContentAsString();
+
+        CuboidDTO cuboid = objectMapper.readValue(created, CuboidDTO.class);
+        this.mockMvc.perform(delete(CUBOID_PATH + "/" + cuboid.getId())).andExpect(status().isNoContent());
+    }
+
+    @Test
+    void shouldKeepServingJsonListsFromTheBlockingController() throws Exception {
+        this.mockMvc.perform(get(CUBOID_PATH).accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].id").value(Matchers.hasItem(3)));
+    }
+}
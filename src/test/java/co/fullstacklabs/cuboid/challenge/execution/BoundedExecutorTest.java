@@ -0,0 +1,47 @@
+package co.fullstacklabs.cuboid.challenge.execution;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedExecutorTest {
+
+    @Test
+    void runsAtMostTheConfiguredNumberOfTasksAtOnce() throws InterruptedException {
+        ExecutorService delegate = Executors.newCachedThreadPool();
+        BoundedExecutor executor = new BoundedExecutor(delegate, 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        delegate.shutdown();
+    }
+
+    @Test
+    void virtualThreadsAreOnlyOfferedWhenTheRuntimeHasThem() {
+        boolean supported = Runtime.version().feature() >= 21;
+        assertEquals(supported, VirtualThreads.newPerTaskExecutor().isPresent());
+    }
+
+}
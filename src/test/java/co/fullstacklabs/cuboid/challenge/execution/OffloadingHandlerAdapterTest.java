@@ -0,0 +1,74 @@
+package co.fullstacklabs.cuboid.challenge.execution;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hamcrest.core.Is;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "cuboid.execution.mode=ASYNC")
+@AutoConfigureMockMvc
+class OffloadingHandlerAdapterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void handlerAdapterIsReplaced() {
+        assertThat(handlerAdapter).isInstanceOf(OffloadingHandlerAdapter.class);
+    }
+
+    @Test
+    void handlersCompleteAsynchronously() throws Exception {
+        MvcResult result = mockMvc.perform(get("/bags/3")).andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", Is.is("Title 3")));
+    }
+
+    @Test
+    void handlerExceptionsReachTheExceptionHandler() throws Exception {
+        MvcResult result = mockMvc.perform(get("/bags/9999")).andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message", Is.is("Object Bag not found!")));
+    }
+
+    @Test
+    void statementsOfTheOffloadedHandlerAreRecorded() throws Exception {
+        MvcResult result = mockMvc.perform(get("/cuboids").param("limit", "10"))
+                .andExpect(request().asyncStarted()).andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get("http.server.requests.db.statements")
+                .tag("method", "GET").tag("uri", "/cuboids").summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void requestBodyValidationStaysOnTheServletThread() throws Exception {
+        mockMvc.perform(post("/bags").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
+
+}
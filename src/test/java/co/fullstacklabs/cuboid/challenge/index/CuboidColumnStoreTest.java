@@ -0,0 +1,154 @@
+package co.fullstacklabs.cuboid.challenge.index;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagVolumeDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.VolumeBucketDTO;
+import co.fullstacklabs.cuboid.challenge.repository.CuboidRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CuboidColumnStoreTest {
+
+    private final CuboidRepository repository = Mockito.mock(CuboidRepository.class);
+    private final CuboidColumnStore store = new CuboidColumnStore(repository, Mockito.mock(PlatformTransactionManager.class));
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void sumsVolumesByBag() {
+        load(cuboid(1L, 2f, 3f, 4f, 7L), cuboid(2L, 1f, 1f, 1f, 5L), cuboid(3L, 2f, 2f, 2f, 7L));
+
+        List<BagVolumeDTO> volumes = store.volumeByBag();
+
+        assertEquals(List.of(5L, 7L), volumes.stream().map(BagVolumeDTO::getBagId).collect(Collectors.toList()));
+        assertEquals(1L, volumes.get(0).getCuboidCount());
+        assertEquals(1d, volumes.get(0).getTotalVolume());
+        assertEquals(2L, volumes.get(1).getCuboidCount());
+        assertEquals(32d, volumes.get(1).getTotalVolume());
+    }
+
+    @Test
+    void countsVolumesInEquallyWideBuckets() {
+        load(cuboid(1L, 1f, 1f, 1f, 1L), cuboid(2L, 2f, 1f, 1f, 1L), cuboid(3L, 5f, 1f, 1f, 1L),
+                cuboid(4L, 9f, 1f, 1f, 2L));
+
+        List<VolumeBucketDTO> all = store.volumeHistogram(2, null);
+        List<VolumeBucketDTO> bag = store.volumeHistogram(4, 1L);
+
+        assertEquals(List.of(2L, 2L), all.stream().map(VolumeBucketDTO::getCount).collect(Collectors.toList()));
+        assertEquals(5d, all.get(0).getMaxVolume());
+        assertEquals(9d, all.get(1).getMaxVolume());
+        assertEquals(List.of(1L, 1L, 0L, 1L), bag.stream().map(VolumeBucketDTO::getCount).collect(Collectors.toList()));
+        assertTrue(store.volumeHistogram(3, 99L).isEmpty());
+    }
+
+    @Test
+    void findsTheLargestCuboidsWithTiesById() {
+        load(cuboid(1L, 1f, 1f, 1f, 1L), cuboid(2L, 3f, 1f, 1f, 1L), cuboid(3L, 1f, 3f, 1f, 2L),
+                cuboid(4L, 2f, 1f, 1f, 1L));
+
+        assertEquals(List.of(2L, 3L, 4L), ids(store.largest(3, null)));
+        assertEquals(List.of(2L, 4L, 1L), ids(store.largest(10, 1L)));
+        assertTrue(store.largest(0, null).isEmpty());
+    }
+
+    @Test
+    void appliesWritesOnlyOnceTheTransactionCommits() {
+        load();
+        TransactionSynchronizationManager.initSynchronization();
+
+        store.put(cuboid(1L, 1f, 1f, 1f, 1L));
+        assertEquals(0, store.size());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void matchesALinearScanThroughWrites() {
+        Random random = new Random(11);
+        Map<Long, CuboidDTO> cuboids = new LinkedHashMap<>();
+        for (long id = 1; id <= 3_000; id++) {
+            cuboids.put(id, randomCuboid(random, id));
+        }
+        load(cuboids.values().toArray(new CuboidDTO[0]));
+
+        List<CuboidDTO> added = new ArrayList<>();
+        for (long id = 3_001; id <= 5_000; id++) {
+            added.add(randomCuboid(random, id));
+        }
+        store.putAll(added);
+        added.forEach(cuboid -> cuboids.put(cuboid.getId(), cuboid));
+        for (int i = 0; i < 2_000; i++) {
+            long id = 1 + random.nextInt(5_000);
+            if (random.nextBoolean()) {
+                store.remove(id);
+                cuboids.remove(id);
+            } else {
+                CuboidDTO cuboid = randomCuboid(random, id);
+                store.put(cuboid);
+                cuboids.put(id, cuboid);
+            }
+        }
+
+        Map<Long, Double> expectedVolumes = new TreeMap<>();
+        cuboids.values().forEach(cuboid -> expectedVolumes.merge(cuboid.getBagId(), volume(cuboid), Double::sum));
+        Map<Long, Double> volumes = new TreeMap<>();
+        store.volumeByBag().forEach(bag -> volumes.put(bag.getBagId(), bag.getTotalVolume()));
+        List<Long> expectedLargest = cuboids.values().stream()
+                .sorted(Comparator.comparingDouble(CuboidColumnStoreTest::volume).reversed()
+                        .thenComparing(CuboidDTO::getId))
+                .limit(50)
+                .map(CuboidDTO::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(cuboids.size(), store.size());
+        assertEquals(expectedVolumes, volumes);
+        assertEquals(expectedLargest, ids(store.largest(50, null)));
+        assertEquals(cuboids.size(), store.volumeHistogram(7, null).stream().mapToLong(VolumeBucketDTO::getCount).sum());
+    }
+
+    private void load(CuboidDTO... cuboids) {
+        Mockito.when(repository.streamAllForIndex()).thenReturn(Stream.of(cuboids));
+        store.rebuild();
+    }
+
+    private static CuboidDTO randomCuboid(Random random, long id) {
+        return cuboid(id, 1 + random.nextInt(20), 1 + random.nextInt(20), 1 + random.nextInt(20), 1 + random.nextInt(30));
+    }
+
+    private static double volume(CuboidDTO cuboid) {
+        return (double) cuboid.getWidth() * cuboid.getHeight() * cuboid.getDepth();
+    }
+
+    private static List<Long> ids(List<CuboidDTO> cuboids) {
+        return cuboids.stream().map(CuboidDTO::getId).collect(Collectors.toList());
+    }
+
+    private static CuboidDTO cuboid(long id, float width, float height, float depth, long bagId) {
+        return CuboidDTO.builder().id(id).width(width).height(height).depth(depth).bagId(bagId).build();
+    }
+
+}
@@ -0,0 +1,129 @@
+package co.fullstacklabs.cuboid.challenge.index;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.repository.CuboidRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CuboidFitIndexTest {
+
+    private final CuboidRepository repository = Mockito.mock(CuboidRepository.class);
+    private final CuboidFitIndex index = new CuboidFitIndex(repository, Mockito.mock(PlatformTransactionManager.class));
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void findsCuboidsThatFitInAnyOrientation() {
+        load(cuboid(1L, 5f, 3f, 2f), cuboid(2L, 4f, 4f, 2f), cuboid(3L, 3f, 3f, 3f));
+
+        assertEquals(List.of(1L), ids(index.findFitting(2f, 5f, 3f, 10)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.findFitting(5f, 5f, 5f, 10)));
+        assertTrue(index.findFitting(1f, 10f, 10f, 10).isEmpty());
+    }
+
+    @Test
+    void appliesWritesOnTopOfTheLoadedTree() {
+        load(cuboid(1L, 5f, 3f, 2f), cuboid(2L, 4f, 4f, 2f));
+
+        index.put(cuboid(3L, 1f, 1f, 1f));
+        index.put(cuboid(2L, 9f, 9f, 9f));
+        index.remove(1L);
+
+        assertEquals(List.of(3L), ids(index.findFitting(5f, 5f, 5f, 10)));
+        assertEquals(List.of(2L, 3L), ids(index.findFitting(9f, 9f, 9f, 10)));
+    }
+
+    @Test
+    void appliesWritesOnlyOnceTheTransactionCommits() {
+        load();
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.put(cuboid(1L, 1f, 1f, 1f));
+        assertTrue(index.findFitting(1f, 1f, 1f, 10).isEmpty());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(List.of(1L), ids(index.findFitting(1f, 1f, 1f, 10)));
+    }
+
+    @Test
+    void matchesALinearScanThroughCompactions() {
+        Random random = new Random(7);
+        List<CuboidDTO> cuboids = new ArrayList<>();
+        for (long id = 1; id <= 5_000; id++) {
+            cuboids.add(cuboid(id, 1 + random.nextInt(20), 1 + random.nextInt(20), 1 + random.nextInt(20)));
+        }
+        load(cuboids.toArray(new CuboidDTO[0]));
+
+        for (long id = 5_001; id <= 8_000; id++) {
+            CuboidDTO cuboid = cuboid(id, 1 + random.nextInt(20), 1 + random.nextInt(20), 1 + random.nextInt(20));
+            index.put(cuboid);
+            cuboids.add(cuboid);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            CuboidDTO removed = cuboids.remove(random.nextInt(cuboids.size()));
+            index.remove(removed.getId());
+        }
+
+        for (int i = 0; i < 200; i++) {
+            float width = 1 + random.nextInt(20);
+            float height = 1 + random.nextInt(20);
+            float depth = 1 + random.nextInt(20);
+            List<Long> expected = cuboids.stream()
+                    .filter(cuboid -> fits(cuboid, width, height, depth))
+                    .map(CuboidDTO::getId)
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            assertEquals(expected, ids(index.findFitting(width, height, depth, Integer.MAX_VALUE)));
+        }
+    }
+
+    @Test
+    void returnsTheLowestIdsUpToTheLimit() {
+        load(cuboid(9L, 1f, 1f, 1f), cuboid(4L, 1f, 1f, 1f), cuboid(7L, 1f, 1f, 1f), cuboid(2L, 1f, 1f, 1f),
+                cuboid(6L, 1f, 1f, 1f), cuboid(5L, 9f, 9f, 9f));
+        index.put(cuboid(3L, 1f, 1f, 1f));
+        index.put(cuboid(2L, 9f, 9f, 9f));
+
+        assertEquals(List.of(3L, 4L), ids(index.findFitting(1f, 1f, 1f, 2)));
+        assertEquals(List.of(3L, 4L, 6L, 7L, 9L), ids(index.findFitting(1f, 1f, 1f, 10)));
+    }
+
+    private void load(CuboidDTO... cuboids) {
+        Mockito.when(repository.streamAllForIndex()).thenReturn(Stream.of(cuboids));
+        index.rebuild();
+    }
+
+    private static boolean fits(CuboidDTO cuboid, float width, float height, float depth) {
+        float[] sides = KdTree.Entry.sort(cuboid.getWidth(), cuboid.getHeight(), cuboid.getDepth());
+        float[] bounds = KdTree.Entry.sort(width, height, depth);
+        return sides[0] <= bounds[0] && sides[1] <= bounds[1] && sides[2] <= bounds[2];
+    }
+
+    private static List<Long> ids(List<CuboidDTO> cuboids) {
+        return cuboids.stream().map(CuboidDTO::getId).collect(Collectors.toList());
+    }
+
+    private static CuboidDTO cuboid(long id, float width, float height, float depth) {
+        return CuboidDTO.builder().id(id).width(width).height(height).depth(depth).bagId(1L).build();
+    }
+
+}
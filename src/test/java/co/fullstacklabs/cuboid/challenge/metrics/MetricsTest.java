@@ -0,0 +1,61 @@
+package co.fullstacklabs.cuboid.challenge.metrics;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class MetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void serviceTimersAndRequestStatementsAreScraped() throws Exception {
+        mockMvc.perform(get("/bags/3")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "cuboid_service_seconds_count{class=\"co.fullstacklabs.cuboid.challenge.service.impl.BagServiceImpl\"")))
+                .andExpect(content().string(containsString("cuboid_service_seconds_bucket{")))
+                .andExpect(content().string(containsString(
+                        "http_server_requests_db_statements_count{method=\"GET\",uri=\"/bags/{id}\",}")));
+    }
+
+    @Test
+    void capacityRejectionsAreTaggedByCheck() throws Exception {
+        CuboidDTO cuboid = CuboidDTO.builder().width(10f).height(10f).depth(10f).volume(1000d).bagId(1L).build();
+        mockMvc.perform(post("/cuboids").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(cuboid))).andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk())
+                .andExpect(content().string(containsString("cuboid_capacity_rejections_total{check=\"ledger\"")))
+                .andExpect(content().string(containsString("exception=\"UnprocessableEntityException\"")));
+    }
+
+    @Test
+    void notFoundIsTaggedWithItsException() throws Exception {
+        mockMvc.perform(get("/bags/9999")).andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk())
+                .andExpect(content().string(containsString("exception=\"ResourceNotFoundException\"")))
+                .andExpect(content().string(containsString("cuboid_optimistic_lock_retries_total")));
+    }
+
+}
@@ -0,0 +1,185 @@
+package co.fullstacklabs.cuboid.challenge.occupancy;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagOccupancyDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.NewBagDTO;
+import co.fullstacklabs.cuboid.challenge.event.CuboidCreated;
+import co.fullstacklabs.cuboid.challenge.service.BagService;
+import co.fullstacklabs.cuboid.challenge.service.CuboidService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BagOccupancyViewTest {
+
+    private static final String SELECT_OCCUPANCY =
+            "select CUBOID_COUNT, PAYLOAD_VOLUME from BAG_OCCUPANCY where BAG_ID = ?";
+
+    @Autowired
+    private BagOccupancyView view;
+    @Autowired
+    private CuboidService cuboidService;
+    @Autowired
+    private BagService bagService;
+    @Autowired
+    private ApplicationEventPublisher events;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Value("${spring.datasource.hikari.maximum-pool-size}")
+    private int poolSize;
+
+    @Test
+    void followsCuboidsCreatedResizedMovedAndDeleted() {
+        BagOccupancyDTO before = view.find(3L).orElseThrow();
+
+        CuboidDTO created = cuboidService.create(CuboidDTO.builder().width(1f).height(2f).depth(3f).bagId(3L).build());
+        assertOccupancy(3L, before.getCuboidCount() + 1, before.getPayloadVolume() + 6d);
+
+        cuboidService.update(created.getId(), CuboidDTO.builder().width(1f).height(2f).depth(4f).bagId(3L).build());
+        assertOccupancy(3L, before.getCuboidCount() + 1, before.getPayloadVolume() + 8d);
+
+        long bagId = bagService.create(NewBagDTO.builder().title("Occupancy").volume(10d).build()).getId();
+        cuboidService.update(created.getId(), CuboidDTO.builder().width(1f).height(1f).depth(1f).bagId(bagId).build());
+        assertOccupancy(3L, before.getCuboidCount(), before.getPayloadVolume());
+        assertOccupancy(bagId, 1L, 1d);
+
+        cuboidService.delete(created.getId());
+        assertOccupancy(bagId, 0L, 0d);
+    }
+
+    @Test
+    void ignoresEventsOfRolledBackTransactions() {
+        BagOccupancyDTO before = view.find(3L).orElseThrow();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            events.publishEvent(new CuboidCreated(
+                    List.of(CuboidDTO.builder().id(-1L).width(1f).height(1f).depth(1f).bagId(3L).build())));
+            status.setRollbackOnly();
+        });
+
+        assertOccupancy(3L, before.getCuboidCount(), before.getPayloadVolume());
+    }
+
+    @Test
+    void rebuildRecomputesTheTableFromTheCuboids() {
+        BagOccupancyDTO before = view.find(2L).orElseThrow();
+        jdbc.update("update BAG_OCCUPANCY set CUBOID_COUNT = 99, PAYLOAD_VOLUME = 999 where BAG_ID = 2");
+        view.load();
+        assertEquals(99L, view.find(2L).orElseThrow().getCuboidCount());
+
+        view.rebuild();
+
+        assertOccupancy(2L, before.getCuboidCount(), before.getPayloadVolume());
+    }
+
+    @Test
+    void failedUpdateRollsBackTheWriteThatPublishedIt() {
+        BagOccupancyDTO before = view.find(3L).orElseThrow();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        assertThrows(DataAccessException.class, () -> transaction.executeWithoutResult(status -> {
+            events.publishEvent(new CuboidCreated(
+                    List.of(CuboidDTO.builder().id(-1L).width(1f).height(1f).depth(1f).bagId(3L).build())));
+            events.publishEvent(new CuboidCreated(
+                    List.of(CuboidDTO.builder().id(-2L).width(1f).height(1f).depth(1f).bagId(-1L).build())));
+        }));
+
+        assertOccupancy(3L, before.getCuboidCount(), before.getPayloadVolume());
+    }
+
+    @Test
+    void failedUpdateOutsideATransactionIsLoggedNotThrown() {
+        BagOccupancyDTO before = view.find(3L).orElseThrow();
+
+        events.publishEvent(new CuboidCreated(
+                List.of(CuboidDTO.builder().id(-1L).width(1f).height(1f).depth(1f).bagId(-1L).build())));
+        assertTrue(view.find(-1L).isEmpty());
+
+        CuboidDTO created = cuboidService.create(CuboidDTO.builder().width(1f).height(1f).depth(2f).bagId(3L).build());
+        assertOccupancy(3L, before.getCuboidCount() + 1, before.getPayloadVolume() + 2d);
+
+        cuboidService.delete(created.getId());
+        assertOccupancy(3L, before.getCuboidCount(), before.getPayloadVolume());
+    }
+
+    @Test
+    void writesCommittedAlongsideARebuildAreKept() {
+        BagOccupancyDTO before = view.find(3L).orElseThrow();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        CompletableFuture<CuboidDTO> created = transaction.execute(status -> {
+            view.rebuild();
+            return CompletableFuture.supplyAsync(() -> cuboidService.create(
+                    CuboidDTO.builder().width(1f).height(1f).depth(3f).bagId(3L).build()));
+        });
+
+        CuboidDTO cuboid = created.join();
+        assertOccupancy(3L, before.getCuboidCount() + 1, before.getPayloadVolume() + 3d);
+        cuboidService.delete(cuboid.getId());
+        assertOccupancy(3L, before.getCuboidCount(), before.getPayloadVolume());
+    }
+
+    @Test
+    void concurrentWritesBeyondThePoolSizeAreAllCounted() throws Exception {
+        int writers = 3 * poolSize;
+        List<Long> bagIds = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            bagIds.add(bagService.create(NewBagDTO.builder().title("Concurrent " + i).volume(10d).build()).getId());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<CuboidDTO>> created = new ArrayList<>();
+            for (Long bagId : bagIds) {
+                created.add(executor.submit(() -> {
+                    start.await();
+                    return cuboidService.create(CuboidDTO.builder().width(1f).height(1f).depth(2f).bagId(bagId).build());
+                }));
+            }
+            start.countDown();
+            for (Future<CuboidDTO> cuboid : created) {
+                cuboid.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (Long bagId : bagIds) {
+            assertOccupancy(bagId, 1L, 2d);
+        }
+    }
+
+    private void assertOccupancy(long bagId, long cuboidCount, double payloadVolume) {
+        BagOccupancyDTO occupancy = view.find(bagId).orElseThrow();
+        assertEquals(cuboidCount, occupancy.getCuboidCount());
+        assertEquals(payloadVolume, occupancy.getPayloadVolume(), 1e-9);
+        Map<String, Object> row = jdbc.queryForMap(SELECT_OCCUPANCY, bagId);
+        assertEquals(cuboidCount, ((Number) row.get("CUBOID_COUNT")).longValue());
+        assertEquals(payloadVolume, ((Number) row.get("PAYLOAD_VOLUME")).doubleValue(), 1e-9);
+    }
+
+}
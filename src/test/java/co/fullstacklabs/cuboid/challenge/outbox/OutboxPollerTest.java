@@ -0,0 +1,98 @@
+package co.fullstacklabs.cuboid.challenge.outbox;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.ChangeBatchDTO;
+import co.fullstacklabs.cuboid.challenge.dto.ChangeDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.NewBagDTO;
+import co.fullstacklabs.cuboid.challenge.exception.UnprocessableEntityException;
+import co.fullstacklabs.cuboid.challenge.service.BagService;
+import co.fullstacklabs.cuboid.challenge.service.ChangeFeedService;
+import co.fullstacklabs.cuboid.challenge.service.CuboidService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "cuboid.outbox.enabled=true")
+class OutboxPollerTest {
+
+    @Autowired
+    private OutboxPoller poller;
+    @Autowired
+    private ChangeFeedService changeFeed;
+    @Autowired
+    private BagService bagService;
+    @Autowired
+    private CuboidService cuboidService;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void publishesCommittedWritesInOrder() {
+        poller.publish();
+        long since = changeFeed.read(0, Integer.MAX_VALUE).getNext();
+
+        BagDTO bag = bagService.create(NewBagDTO.builder().title("Outbox").volume(10d).build());
+        CuboidDTO cuboid = cuboidService.create(CuboidDTO.builder().width(1f).height(2f).depth(3f).bagId(bag.getId()).build());
+        cuboidService.delete(cuboid.getId());
+        poller.publish();
+
+        List<ChangeDTO> changes = changeFeed.read(since, 100).getChanges().stream()
+                .filter(change -> change.getPayload().contains("\"bagId\":" + bag.getId())
+                        || change.getPayload().contains("\"id\":" + bag.getId() + ",\"volume\""))
+                .collect(Collectors.toList());
+        assertEquals(List.of("BagCreated", "CuboidCreated", "CuboidDeleted"),
+                changes.stream().map(ChangeDTO::getType).collect(Collectors.toList()));
+        assertTrue(changes.get(0).getPosition() < changes.get(1).getPosition());
+        assertTrue(changes.get(1).getPayload().contains("\"id\":" + cuboid.getId()));
+    }
+
+    @Test
+    void rolledBackWritesLeaveNoEntry() {
+        long before = jdbc.queryForObject("select count(*) from OUTBOX", Long.class);
+
+        assertThrows(UnprocessableEntityException.class, () -> cuboidService.create(
+                CuboidDTO.builder().width(10f).height(10f).depth(10f).bagId(3L).build()));
+
+        assertEquals(before, jdbc.queryForObject("select count(*) from OUTBOX", Long.class));
+    }
+
+    @Test
+    void waitingReadIsAnsweredOnceChangesArePublished() throws Exception {
+        poller.publish();
+        long since = changeFeed.read(0, Integer.MAX_VALUE).getNext();
+
+        CompletableFuture<ChangeBatchDTO> waiting = changeFeed.await(since, 100, 10_000);
+        assertFalse(waiting.isDone());
+        bagService.create(NewBagDTO.builder().title("Waited for").volume(10d).build());
+        poller.publish();
+
+        ChangeBatchDTO batch = waiting.get();
+        assertFalse(batch.getChanges().isEmpty());
+        assertTrue(batch.getNext() > since);
+    }
+
+    @Test
+    void runningPollerPublishesWithoutBeingAsked() throws Exception {
+        assertTrue(poller.isRunning());
+        poller.publish();
+        long since = changeFeed.read(0, Integer.MAX_VALUE).getNext();
+
+        CompletableFuture<ChangeBatchDTO> waiting = changeFeed.await(since, 100, 10_000);
+        bagService.create(NewBagDTO.builder().title("Polled").volume(10d).build());
+
+        ChangeBatchDTO batch = waiting.get();
+        assertTrue(batch.getChanges().stream().anyMatch(change -> change.getPayload().contains("\"Polled\"")));
+    }
+
+}
@@ -0,0 +1,154 @@
+package co.fullstacklabs.cuboid.challenge.repository;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagCapacityDTO;
+import co.fullstacklabs.cuboid.challenge.dto.BagSummaryDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidSearchDTO;
+import co.fullstacklabs.cuboid.challenge.model.Bag;
+import co.fullstacklabs.cuboid.challenge.model.Cuboid;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import testbuilders.CuboidTestBuilder;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class BagRepositoryTest {
+
+    @Autowired
+    private BagRepository bagRepository;
+    @Autowired
+    private CuboidRepository cuboidRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void findAllWithCuboidsLoadsCuboidsInOneStatement() {
+        Bag bag = entityManager.find(Bag.class, 3L);
+        entityManager.persist(CuboidTestBuilder.builder().width(1f).height(1f).depth(1f).bag(bag).build());
+        entityManager.persist(CuboidTestBuilder.builder().width(1f).height(1f).depth(2f).bag(bag).build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Bag> bags = bagRepository.findAllWithCuboids();
+        int cuboids = bags.stream().mapToInt(found -> found.getCuboids().size()).sum();
+
+        assertEquals(3, bags.size());
+        assertEquals(5, cuboids);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void persistTakesIdsFromAPooledSequenceBlock() {
+        Bag bag = entityManager.find(Bag.class, 3L);
+        statistics.clear();
+
+        for (int i = 1; i <= 10; i++) {
+            entityManager.persist(CuboidTestBuilder.builder().width(1f).height(1f).depth(i).bag(bag).build());
+        }
+        entityManager.flush();
+
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "one batched insert and at most one sequence call, got " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void pageLoadsCuboidsInBatches() {
+        statistics.clear();
+
+        List<Bag> bags = bagRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10));
+        bags.forEach(bag -> bag.getCuboids().size());
+
+        assertEquals(3, bags.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findAllWithRoomSkipsFullBags() {
+        statistics.clear();
+
+        List<BagCapacityDTO> bags = bagRepository.findAllWithRoom();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, bags.size());
+        assertEquals(3L, bags.get(0).getId());
+        assertEquals(73d, bags.get(0).getAvailableVolume());
+    }
+
+    @Test
+    void cuboidFindAllLoadsBagsInOneStatement() {
+        statistics.clear();
+
+        List<Cuboid> cuboids = cuboidRepository.findAll();
+        cuboids.forEach(cuboid -> cuboid.getBag().getTitle());
+
+        assertEquals(3, cuboids.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void cuboidSearchLoadsBagsInOneStatement() {
+        statistics.clear();
+
+        List<Cuboid> cuboids = cuboidRepository.search(CuboidSearchDTO.builder().minVolume(1d).limit(10).build());
+        cuboids.forEach(cuboid -> cuboid.getBag().getTitle());
+
+        assertEquals(3, cuboids.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void occupancySummariesReadTheOccupancyTable() {
+        Bag bag = entityManager.find(Bag.class, 2L);
+        bag.setPayloadVolume(0d);
+        entityManager.flush();
+        statistics.clear();
+
+        List<BagSummaryDTO> summaries = bagRepository.findAllOccupancySummaries();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(3, summaries.size());
+        assertEquals("Title 1", summaries.get(0).getTitle());
+        assertEquals(1L, summaries.get(0).getCuboidCount());
+        assertEquals(30d, summaries.get(0).getPayloadVolume());
+        assertEquals(-10d, summaries.get(0).getAvailableVolume());
+        assertEquals(2L, summaries.get(1).getId());
+        assertEquals(1L, summaries.get(1).getCuboidCount());
+        assertEquals(32d, summaries.get(1).getPayloadVolume());
+        assertEquals(-2d, summaries.get(1).getAvailableVolume());
+    }
+
+    @Test
+    void reconcilePayloadVolumes() {
+        Bag bag = entityManager.find(Bag.class, 1L);
+        long version = bag.getVersion();
+        bag.setPayloadVolume(999d);
+        entityManager.flush();
+
+        assertEquals(3, bagRepository.reconcilePayloadVolumes());
+
+        Bag reconciled = entityManager.find(Bag.class, 1L);
+        assertEquals(30d, reconciled.getPayloadVolume());
+        assertEquals(version + 2, reconciled.getVersion());
+    }
+}
@@ -1,11 +1,17 @@
 package co.fullstacklabs.cuboid.challenge.service;
 
+import co.fullstacklabs.cuboid.challenge.cache.BagCache;
+import co.fullstacklabs.cuboid.challenge.concurrency.BagCapacityLedger;
 import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.BagOccupancyDTO;
 import co.fullstacklabs.cuboid.challenge.dto.NewBagDTO;
+import co.fullstacklabs.cuboid.challenge.event.BagCreated;
 import co.fullstacklabs.cuboid.challenge.exception.ResourceNotFoundException;
 import co.fullstacklabs.cuboid.challenge.model.Bag;
+import co.fullstacklabs.cuboid.challenge.occupancy.BagOccupancyView;
 import co.fullstacklabs.cuboid.challenge.repository.BagRepository;
 import co.fullstacklabs.cuboid.challenge.service.impl.BagServiceImpl;
+import co.fullstacklabs.cuboid.challenge.mapper.BagMapper;
 import org.assertj.core.util.Lists;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -15,11 +21,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import testbuilders.BagTestBuilder;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.LongFunction;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -30,7 +38,15 @@ class BagServiceTest {
     @Mock
     private BagRepository repository;
     @Mock
-    private ModelMapper mapper;
+    private BagMapper mapper;
+    @Mock
+    private BagCapacityLedger ledger;
+    @Mock
+    private BagCache bagCache;
+    @Mock
+    private BagOccupancyView occupancyView;
+    @Mock
+    private ApplicationEventPublisher events;
 
     @Test
     void testCreatingSuccess() {
@@ -43,7 +59,8 @@ class BagServiceTest {
 
         ArgumentCaptor<Bag> bagCaptor = ArgumentCaptor.forClass(Bag.class);
         Mockito.verify(repository).save(bagCaptor.capture());
-        Mockito.verify(mapper).map(bag, BagDTO.class);
+        Mockito.verify(mapper).toDTO(bag);
+        Mockito.verify(events).publishEvent(Mockito.any(BagCreated.class));
 
         assertEquals(title, bagCaptor.getValue().getTitle());
         assertEquals(volume, bagCaptor.getValue().getVolume());
@@ -59,13 +76,13 @@ class BagServiceTest {
         Bag bag1 = BagTestBuilder.builder().title(title).volume(volume).build();
         Bag bag2 = BagTestBuilder.builder().title(title2).volume(volume2).build();
         List<Bag> bagList = Lists.newArrayList(bag1, bag2);
-        Mockito.when(repository.findAll()).thenReturn(bagList);
+        Mockito.when(repository.findAllWithCuboids()).thenReturn(bagList);
 
         bagService.getAll();
 
-        Mockito.verify(repository).findAll();
-        Mockito.verify(mapper).map(bagList.get(0), BagDTO.class);
-        Mockito.verify(mapper).map(bagList.get(1), BagDTO.class);
+        Mockito.verify(repository).findAllWithCuboids();
+        Mockito.verify(mapper).toDTO(bagList.get(0));
+        Mockito.verify(mapper).toDTO(bagList.get(1));
     }
 
     @Test
@@ -73,9 +90,10 @@ class BagServiceTest {
         long id = 1L;
         Bag bag1 = BagTestBuilder.builder().build();
         Mockito.when(repository.findById(id)).thenReturn(Optional.of(bag1));
+        loadThroughCache(id);
         bagService.findById(id);
         Mockito.verify(repository).findById(id);
-        Mockito.verify(mapper).map(bag1, BagDTO.class);
+        Mockito.verify(mapper).toDTO(bag1);
 
     }
 
@@ -83,6 +101,52 @@ class BagServiceTest {
     void testFindByIdNotfound() {
         long id = 2L;
         Mockito.when(repository.findById(id)).thenReturn(Optional.empty());
+        loadThroughCache(id);
         Assertions.assertThrows(ResourceNotFoundException.class, () -> bagService.findById(id));
     }
-}
\ No newline at end of file
+
+    private void loadThroughCache(long id) {
+        Mockito.when(bagCache.get(Mockito.eq(id), Mockito.any()))
+                .thenAnswer(invocation -> invocation.<LongFunction<BagDTO>>getArgument(1).apply(id));
+    }
+
+    @Test
+    void testGetPage() {
+        Bag bag = BagTestBuilder.builder().id(3L).build();
+        Mockito.when(repository.findByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, 10))).thenReturn(List.of(bag));
+
+        bagService.getPage(2L, 10);
+
+        Mockito.verify(repository).findByIdGreaterThanOrderByIdAsc(2L, PageRequest.of(0, 10));
+        Mockito.verify(mapper).toDTO(bag);
+    }
+
+    @Test
+    void testReconcilePayloads() {
+        Mockito.when(repository.reconcilePayloadVolumes()).thenReturn(3);
+
+        assertEquals(3, bagService.reconcilePayloads());
+        Mockito.verify(ledger).reset();
+        Mockito.verify(occupancyView).rebuild();
+    }
+
+    @Test
+    void testGetOccupancyFromTheView() {
+        Mockito.when(occupancyView.find(1L)).thenReturn(Optional.of(new BagOccupancyDTO(1L, 2L, 12d)));
+
+        BagOccupancyDTO occupancy = bagService.getOccupancy(1L);
+
+        assertEquals(2L, occupancy.getCuboidCount());
+        assertEquals(12d, occupancy.getPayloadVolume());
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testGetOccupancyOfABagWithoutCuboids() {
+        Mockito.when(occupancyView.find(Mockito.anyLong())).thenReturn(Optional.empty());
+        Mockito.when(repository.existsById(4L)).thenReturn(true);
+
+        assertEquals(0L, bagService.getOccupancy(4L).getCuboidCount());
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> bagService.getOccupancy(5L));
+    }
+}
@@ -0,0 +1,77 @@
+package co.fullstacklabs.cuboid.challenge.service;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagCapacityDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.dto.NewCuboidDTO;
+import co.fullstacklabs.cuboid.challenge.exception.UnprocessableEntityException;
+import co.fullstacklabs.cuboid.challenge.repository.BagRepository;
+import co.fullstacklabs.cuboid.challenge.service.impl.PackingServiceImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith(MockitoExtension.class)
+class PackingServiceTest {
+
+    @InjectMocks
+    private PackingServiceImpl packingService;
+    @Mock
+    private BagRepository bagRepository;
+    @Mock
+    private CuboidService cuboidService;
+    @Captor
+    private ArgumentCaptor<List<CuboidDTO>> captor;
+
+    private final List<NewCuboidDTO> cuboids = List.of(
+            NewCuboidDTO.builder().width(1f).height(1f).depth(4f).build(),
+            NewCuboidDTO.builder().width(2f).height(2f).depth(2f).build(),
+            NewCuboidDTO.builder().width(1f).height(1f).depth(6f).build());
+
+    @Test
+    void packFirstFitDecreasing() {
+        mockBags();
+
+        assertEquals(List.of(2L, 1L, 1L), packedBagIds(PackingStrategy.FIRST_FIT_DECREASING));
+    }
+
+    @Test
+    void packBestFitDecreasing() {
+        mockBags();
+
+        assertEquals(List.of(2L, 3L, 2L), packedBagIds(PackingStrategy.BEST_FIT_DECREASING));
+    }
+
+    @Test
+    void packWithoutEnoughCapacity() {
+        Mockito.when(bagRepository.findAllWithRoom()).thenReturn(List.of(new BagCapacityDTO(1L, 10d, 0d)));
+
+        Assertions.assertThrows(UnprocessableEntityException.class,
+                () -> packingService.pack(cuboids, PackingStrategy.BEST_FIT_DECREASING));
+        Mockito.verifyNoInteractions(cuboidService);
+    }
+
+    private void mockBags() {
+        Mockito.when(bagRepository.findAllWithRoom()).thenReturn(List.of(
+                new BagCapacityDTO(1L, 15d, 0d),
+                new BagCapacityDTO(2L, 12d, 1d),
+                new BagCapacityDTO(3L, 8d, 0d)));
+    }
+
+    private List<Long> packedBagIds(PackingStrategy strategy) {
+        packingService.pack(cuboids, strategy);
+
+        Mockito.verify(cuboidService).createAll(captor.capture());
+        return captor.getValue().stream().map(CuboidDTO::getBagId).collect(Collectors.toList());
+    }
+}
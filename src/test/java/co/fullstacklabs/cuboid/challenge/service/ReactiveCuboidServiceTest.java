@@ -0,0 +1,92 @@
+package co.fullstacklabs.cuboid.challenge.service;
+
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.event.CuboidDeleted;
+import co.fullstacklabs.cuboid.challenge.exception.ResourceNotFoundException;
+import co.fullstacklabs.cuboid.challenge.exception.UnprocessableEntityException;
+import co.fullstacklabs.cuboid.challenge.model.BagRow;
+import co.fullstacklabs.cuboid.challenge.occupancy.BagOccupancyView;
+import co.fullstacklabs.cuboid.challenge.repository.ReactiveBagRepository;
+import co.fullstacklabs.cuboid.challenge.repository.ReactiveCuboidRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(properties = "cuboid.reactive.enabled=true")
+class ReactiveCuboidServiceTest {
+
+    @Autowired
+    private ReactiveCuboidService service;
+    @Autowired
+    private ReactiveBagRepository bagRepository;
+    @Autowired
+    private ReactiveCuboidRepository repository;
+    @Autowired
+    private BagOccupancyView occupancyView;
+
+    @Test
+    void createAddsVolumeToBagPayload() {
+        BagRow before = bagRepository.findById(3L).block();
+        assertNotNull(before);
+        CuboidDTO cuboidDTO = CuboidDTO.builder().width(1f).height(2f).depth(3f).bagId(3L).build();
+
+        CuboidDTO created = service.create(cuboidDTO).block();
+        assertNotNull(created);
+        BagRow after = bagRepository.findById(3L).block();
+        assertNotNull(after);
+
+        assertEquals(6d, created.getVolume());
+        assertEquals(before.getPayloadVolume() + 6d, after.getPayloadVolume());
+        assertEquals(before.getVersion() + 1, after.getVersion());
+
+        repository.deleteById(created.getId()).then(bagRepository.addPayloadIfItFits(3L, -6d)).block();
+        occupancyView.on(new CuboidDeleted(created.getId(), 3L, 6d));
+    }
+
+    @Test
+    void createTakesIdsFromOneSequenceBlockAndUpdatesTheViewOnCommit() {
+        CuboidDTO cuboidDTO = CuboidDTO.builder().width(1f).height(1f).depth(1f).bagId(3L).build();
+        long cuboidsBefore = occupancyView.find(3L).orElseThrow().getCuboidCount();
+
+        CuboidDTO first = service.create(cuboidDTO).block();
+        CuboidDTO second = service.create(cuboidDTO).block();
+        assertNotNull(first);
+        assertNotNull(second);
+
+        assertEquals(first.getId() + 1, second.getId());
+        assertEquals(cuboidsBefore + 2, occupancyView.find(3L).orElseThrow().getCuboidCount());
+
+        for (CuboidDTO created : List.of(first, second)) {
+            repository.deleteById(created.getId()).then(bagRepository.addPayloadIfItFits(3L, -1d)).block();
+            occupancyView.on(new CuboidDeleted(created.getId(), 3L, 1d));
+        }
+    }
+
+    @Test
+    void createWithBagNotEnoughCapacity() {
+        CuboidDTO cuboidDTO = CuboidDTO.builder().width(10f).height(10f).depth(10f).bagId(3L).build();
+
+        StepVerifier.create(service.create(cuboidDTO)).expectError(UnprocessableEntityException.class).verify();
+    }
+
+    @Test
+    void createWithNoBagFound() {
+        CuboidDTO cuboidDTO = CuboidDTO.builder().width(1f).height(1f).depth(1f).bagId(9999L).build();
+
+        StepVerifier.create(service.create(cuboidDTO)).expectError(ResourceNotFoundException.class).verify();
+    }
+
+    @Test
+    void getAllStreamsCuboidsInIdOrder() {
+        StepVerifier.create(service.getAll().take(3).map(CuboidDTO::getId))
+                .expectNext(1L, 2L, 3L)
+                .verifyComplete();
+    }
+
+}
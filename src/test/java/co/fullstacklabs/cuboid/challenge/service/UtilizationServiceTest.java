@@ -0,0 +1,86 @@
+package co.fullstacklabs.cuboid.challenge.service;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagSummaryDTO;
+import co.fullstacklabs.cuboid.challenge.dto.BagUtilizationDTO;
+import co.fullstacklabs.cuboid.challenge.dto.UtilizationReportDTO;
+import co.fullstacklabs.cuboid.challenge.repository.BagRepository;
+import co.fullstacklabs.cuboid.challenge.service.impl.UtilizationServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UtilizationServiceTest {
+
+    private final BagRepository repository = Mockito.mock(BagRepository.class);
+    private final UtilizationServiceImpl service = new UtilizationServiceImpl(repository,
+            Mockito.mock(PlatformTransactionManager.class), 3, 2, 10);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void mergesEveryIdRangeInOrder() {
+        List<BagSummaryDTO> summaries = LongStream.rangeClosed(1, 10)
+                .mapToObj(id -> new BagSummaryDTO(id, "Bag " + id, 10d, (double) id, 1L))
+                .collect(Collectors.toList());
+        Mockito.when(repository.findRangeStarts(3)).thenReturn(List.of(1L, 4L, 7L, 10L));
+        Mockito.when(repository.findSummariesBetween(Mockito.anyLong(), Mockito.anyLong())).thenAnswer(call -> {
+            long from = call.getArgument(0);
+            long to = call.getArgument(1);
+            return summaries.stream()
+                    .filter(summary -> summary.getId() >= from && summary.getId() <= to)
+                    .collect(Collectors.toList());
+        });
+
+        UtilizationReportDTO report = service.report(true);
+
+        Mockito.verify(repository).findSummariesBetween(4L, 6L);
+        Mockito.verify(repository).findSummariesBetween(10L, Long.MAX_VALUE);
+        assertEquals(LongStream.rangeClosed(1, 10).boxed().collect(Collectors.toList()),
+                report.getBags().stream().map(BagUtilizationDTO::getBagId).collect(Collectors.toList()));
+        assertEquals(10L, report.getBagCount());
+        assertEquals(10L, report.getCuboidCount());
+        assertEquals(100d, report.getTotalVolume());
+        assertEquals(55d, report.getTotalPayloadVolume());
+        assertEquals(0.55d, report.getFillRatio(), 1e-9);
+        assertEquals(Map.of("p50", 0.5d, "p90", 0.9d, "p95", 1d, "p99", 1d), report.getFillRatioPercentiles());
+        assertTrue(report.getOverfilledBags().isEmpty());
+    }
+
+    @Test
+    void listsOverfilledBagsAndLeavesOutEmptyVolumes() {
+        Mockito.when(repository.findRangeStarts(3)).thenReturn(List.of(1L));
+        Mockito.when(repository.findSummariesBetween(1L, Long.MAX_VALUE)).thenReturn(List.of(
+                new BagSummaryDTO(1L, "Full", 10d, 12d, 2L),
+                new BagSummaryDTO(2L, "No volume", 0d, 0d, 0L)));
+
+        UtilizationReportDTO report = service.report(false);
+
+        assertEquals(List.of(1L), report.getOverfilledBags().stream()
+                .map(BagUtilizationDTO::getBagId).collect(Collectors.toList()));
+        assertEquals(1.2d, report.getFillRatioPercentiles().get("p50"), 1e-9);
+        assertNull(report.getBags());
+    }
+
+    @Test
+    void reportsNothingWithoutBags() {
+        UtilizationReportDTO report = service.report(true);
+
+        assertEquals(0L, report.getBagCount());
+        assertNull(report.getFillRatio());
+        assertTrue(report.getFillRatioPercentiles().isEmpty());
+    }
+
+}
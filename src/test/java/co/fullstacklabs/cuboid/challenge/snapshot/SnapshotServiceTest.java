@@ -0,0 +1,93 @@
+package co.fullstacklabs.cuboid.challenge.snapshot;
+
+import co.fullstacklabs.cuboid.challenge.CacheConfig;
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.index.CuboidFitIndex;
+import co.fullstacklabs.cuboid.challenge.service.BagService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"cuboid.snapshot.enabled=true", "cuboid.snapshot.path=target/snapshot-test/cuboids.snapshot"})
+class SnapshotServiceTest {
+
+    private static final int BAGS_SEQUENCE_OFFSET = 2 * Integer.BYTES + 2 * Long.BYTES;
+
+    @Autowired
+    private SnapshotService snapshotService;
+    @Autowired
+    private CuboidFitIndex fitIndex;
+    @Autowired
+    private BagService bagService;
+    @Autowired
+    private CacheManager cacheManager;
+    @Value("${cuboid.snapshot.path}")
+    private String path;
+
+    @Test
+    void loadsIndexesAndCachedBagsFromTheSnapshot() throws IOException {
+        Files.createDirectories(Paths.get(path).getParent());
+        BagDTO bag = bagService.findById(2L);
+        assertTrue(snapshotService.save());
+
+        fitIndex.load(Stream::empty);
+        cacheManager.getCache(CacheConfig.BAGS_CACHE).clear();
+        assertTrue(snapshotService.load());
+
+        assertTrue(ids(fitIndex.findFitting(4f, 4f, 2f, 100)).contains(2L));
+        BagDTO cached = cacheManager.getCache(CacheConfig.BAGS_CACHE).get(2L, BagDTO.class);
+        assertNotNull(cached);
+        assertEquals(bag.getTitle(), cached.getTitle());
+        assertEquals(bag.getVolume(), cached.getVolume());
+        assertEquals(bag.getPayloadVolume(), cached.getPayloadVolume());
+        assertEquals(ids(bag.getCuboids()), ids(cached.getCuboids()));
+        assertEquals(bag.getCuboids().get(0).getVolume(), cached.getCuboids().get(0).getVolume());
+        assertFalse(Files.exists(Paths.get(path)));
+    }
+
+    @Test
+    void ignoresASnapshotThatNoLongerMatchesTheDatabase() throws IOException {
+        Files.createDirectories(Paths.get(path).getParent());
+        assertTrue(snapshotService.save());
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, -1L), BAGS_SEQUENCE_OFFSET);
+        }
+
+        assertFalse(snapshotService.load());
+        assertFalse(Files.exists(Paths.get(path)));
+    }
+
+    @Test
+    void ignoresAFileThatIsNotASnapshot() throws IOException {
+        Path file = Paths.get(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, "not a snapshot".getBytes());
+
+        assertFalse(snapshotService.load());
+        assertFalse(Files.exists(file));
+    }
+
+    private static List<Long> ids(List<CuboidDTO> cuboids) {
+        return cuboids.stream().map(CuboidDTO::getId).sorted().collect(Collectors.toList());
+    }
+
+}
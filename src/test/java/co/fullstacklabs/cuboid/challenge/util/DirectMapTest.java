@@ -0,0 +1,77 @@
+package co.fullstacklabs.cuboid.challenge.util;
+
+import co.fullstacklabs.cuboid.challenge.dto.BagDTO;
+import co.fullstacklabs.cuboid.challenge.dto.CuboidDTO;
+import co.fullstacklabs.cuboid.challenge.mapper.BagMapper;
+import co.fullstacklabs.cuboid.challenge.mapper.CuboidMapper;
+import co.fullstacklabs.cuboid.challenge.mapper.MappingMode;
+import co.fullstacklabs.cuboid.challenge.model.Bag;
+import co.fullstacklabs.cuboid.challenge.model.Cuboid;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import testbuilders.BagTestBuilder;
+import testbuilders.CuboidTestBuilder;
+
+class DirectMapTest {
+
+    private final ModelMapper reflective = new ModelMapper();
+    private final CuboidMapper cuboidMapper = new CuboidMapper();
+    private final BagMapper bagMapper = new BagMapper(cuboidMapper);
+    private Bag bag;
+    private Cuboid cuboid;
+
+    @BeforeEach
+    void setup() {
+        bag = BagTestBuilder.builder().build();
+        cuboid = CuboidTestBuilder.builder().bag(bag).id(2L).depth(1f).height(5f).width(3f).build();
+        bag.addCuboid(cuboid);
+        bag.addCuboid(CuboidTestBuilder.builder().bag(bag).id(3L).depth(2f).height(4f).width(3f).build());
+    }
+
+    @Test
+    void testBagMappingMatchesModelMapper() {
+        Assertions.assertThat(bagMapper.toDTO(bag))
+                .usingRecursiveComparison()
+                .isEqualTo(reflective.map(bag, BagDTO.class));
+    }
+
+    @Test
+    void testCuboidMappingMatchesModelMapper() {
+        Assertions.assertThat(cuboidMapper.toDTO(cuboid))
+                .usingRecursiveComparison()
+                .isEqualTo(reflective.map(cuboid, CuboidDTO.class));
+    }
+
+    @Test
+    void testReflectiveModeMapsWithModelMapper() {
+        CuboidMapper reflectiveCuboidMapper = new CuboidMapper(MappingMode.REFLECTIVE, reflective);
+        BagMapper reflectiveBagMapper = new BagMapper(reflectiveCuboidMapper, MappingMode.REFLECTIVE, reflective);
+        Assertions.assertThat(reflectiveBagMapper.toDTO(bag))
+                .usingRecursiveComparison()
+                .isEqualTo(bagMapper.toDTO(bag));
+        Assertions.assertThat(reflectiveCuboidMapper.toDTO(cuboid))
+                .usingRecursiveComparison()
+                .isEqualTo(cuboidMapper.toDTO(cuboid));
+    }
+
+    @Test
+    void testCuboidMappingComputesMissingVolume() {
+        cuboid.setVolume(null);
+        Assertions.assertThat(cuboidMapper.toDTO(cuboid).getVolume()).isEqualTo(15d);
+    }
+
+    @Test
+    void testCuboidDTOMapping() {
+        CuboidDTO cuboidDTO = CuboidDTO.builder().id(2L).width(3f).height(5f).depth(1f).volume(15d).bagId(1L).build();
+        Cuboid mapped = cuboidMapper.toEntity(cuboidDTO);
+        Assertions.assertThat(mapped)
+                .usingRecursiveComparison()
+                .ignoringFields("bag")
+                .isEqualTo(reflective.map(cuboidDTO, Cuboid.class));
+        Assertions.assertThat(mapped.getBag()).isNull();
+    }
+
+}
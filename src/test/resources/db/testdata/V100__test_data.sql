@@ -0,0 +1,13 @@
+insert into "BAGS" ("ID", "VOLUME", "TITLE", "PAYLOAD_VOLUME") values (1, 20.0, 'Title 1', 30.0);
+insert into "BAGS" ("ID", "VOLUME", "TITLE", "PAYLOAD_VOLUME") values (2, 30.0, 'Title 2', 32.0);
+insert into "BAGS" ("ID", "VOLUME", "TITLE", "PAYLOAD_VOLUME") values (3, 100.0, 'Title 3', 27.0);
+
+insert into "CUBOIDS" ("ID", "DEPTH", "HEIGHT", "WIDTH", "BAG_ID") values (1, 2.0, 3.0, 5.0, 1);
+insert into "CUBOIDS" ("ID", "DEPTH", "HEIGHT", "WIDTH", "BAG_ID") values (2, 2.0, 4.0, 4.0, 2);
+insert into "CUBOIDS" ("ID", "DEPTH", "HEIGHT", "WIDTH", "BAG_ID") values (3, 3.0, 3.0, 3.0, 3);
+
+alter sequence "BAGS_SEQ" restart with 4;
+alter sequence "CUBOIDS_SEQ" restart with 4;
+
+insert into "BAG_OCCUPANCY" ("BAG_ID", "CUBOID_COUNT", "PAYLOAD_VOLUME")
+select "BAG_ID", count(*), sum("VOLUME") from "CUBOIDS" group by "BAG_ID";